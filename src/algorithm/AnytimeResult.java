@@ -0,0 +1,135 @@
+package algorithm;
+
+/**
+ * The result of anytime classification, which may stop before all base
+ * classifiers are evaluated. It tells whether the label is the same as that of
+ * full evaluation, and how much the votes not counted could still change the
+ * margin.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class AnytimeResult extends Object {
+
+	/**
+	 * The predicted label.
+	 */
+	final int label;
+
+	/**
+	 * Is the label the same as that of full evaluation?
+	 */
+	final boolean exact;
+
+	/**
+	 * The votes of the predicted label minus those of the second best one.
+	 */
+	final double margin;
+
+	/**
+	 * The total weight of classifiers not evaluated. The margin may change by
+	 * at most this amount.
+	 */
+	final double remainingWeight;
+
+	/**
+	 * The number of evaluated base classifiers.
+	 */
+	final int numEvaluated;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraLabel
+	 *            The predicted label.
+	 * @param paraExact
+	 *            Is the label the same as that of full evaluation?
+	 * @param paraMargin
+	 *            The votes of the label minus those of the second best one.
+	 * @param paraRemainingWeight
+	 *            The total weight of classifiers not evaluated.
+	 * @param paraNumEvaluated
+	 *            The number of evaluated base classifiers.
+	 ****************** 
+	 */
+	public AnytimeResult(int paraLabel, boolean paraExact, double paraMargin,
+			double paraRemainingWeight, int paraNumEvaluated) {
+		label = paraLabel;
+		exact = paraExact;
+		margin = paraMargin;
+		remainingWeight = paraRemainingWeight;
+		numEvaluated = paraNumEvaluated;
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int getLabel() {
+		return label;
+	}// Of getLabel
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return True if the label is the same as that of full evaluation.
+	 ****************** 
+	 */
+	public boolean isExact() {
+		return exact;
+	}// Of isExact
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The votes of the label minus those of the second best one.
+	 ****************** 
+	 */
+	public double getMargin() {
+		return margin;
+	}// Of getMargin
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The most change of the margin by classifiers not evaluated.
+	 ****************** 
+	 */
+	public double getMarginBound() {
+		return remainingWeight;
+	}// Of getMarginBound
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of evaluated base classifiers.
+	 ****************** 
+	 */
+	public int getNumEvaluated() {
+		return numEvaluated;
+	}// Of getNumEvaluated
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "Label " + label + (exact ? " (exact)" : " (not exact)") + ", margin " + margin
+				+ " +- " + remainingWeight + ", " + numEvaluated + " classifiers evaluated.";
+	}// Of toString
+}// Of class AnytimeResult
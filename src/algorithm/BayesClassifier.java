@@ -1,6 +1,5 @@
 package algorithm;
 
-import weka.core.Instance;
 import java.io.FileReader;
 import java.util.*;
 
@@ -65,14 +64,14 @@ public class BayesClassifier extends SimpleClassifier {
 
 	/**
 	 ****************** 
-	 * Classify an instance.
+	 * Classify an instance according to its value on the selected attribute.
 	 * 
-	 * @param paraInstance
-	 *            The given instance.
+	 * @param paraValue
+	 *            The value of the instance on the selected attribute.
 	 * @return Predicted label.
 	 ****************** 
 	 */
-	public int classify(Instance paraInstance) {
+	public int classify(double paraValue) {
 		// Find the biggest one
 		double tempBiggest = -10000;
 		int resultBestIndex = 0;
@@ -80,7 +79,7 @@ public class BayesClassifier extends SimpleClassifier {
 		for (int i = 0; i < numClasses; i++) {
 			double tempPseudoProbability = Math.log(classDistributionLaplacian[i]);
 
-			double tempAttributeValue = paraInstance.value(selectedAttribute);
+			double tempAttributeValue = paraValue;
 			double tempSigma = gaussianParameters[i].sigma;
 			double tempMu = gaussianParameters[i].mu;
 
@@ -107,9 +106,10 @@ public class BayesClassifier extends SimpleClassifier {
 		classDistributionLaplacian = new double[numClasses];
 
 		double[] tempCounts = new double[numClasses];
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
 		for (int i = 0; i < numInstances; i++) {
-			int tempClassValue = (int) weightedInstances.instance(i).classValue();
-			tempCounts[tempClassValue] += weightedInstances.getWeight(i) * numInstances;
+			tempCounts[tempLabels[i]] += tempWeights[i] * numInstances;
 		} // Of for i
 
 		for (int i = 0; i < numClasses; i++) {
@@ -135,6 +135,9 @@ public class BayesClassifier extends SimpleClassifier {
 		int tempNumValues = 0;
 		double tempSum = 0;
 		double tempValueSum = 0;
+		double[] tempColumn = weightedInstances.getColumn(selectedAttribute);
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
 
 		for (int i = 0; i < numClasses; i++) {
 			tempSum = 0;
@@ -143,16 +146,15 @@ public class BayesClassifier extends SimpleClassifier {
 			// Obtain values for this class.
 			tempNumValues = 0;
 			for (int k = 0; k < numInstances; k++) {
-				if ((int) weightedInstances.instance(k).classValue() != i) {
+				if (tempLabels[k] != i) {
 					continue;
 				} // Of if
 
 				// Changed
-				tempValuesArray[tempNumValues] = weightedInstances.instance(k)
-						.value(selectedAttribute) * weightedInstances.getWeight(k);
+				tempValuesArray[tempNumValues] = tempColumn[k] * tempWeights[k];
 				tempSum += tempValuesArray[tempNumValues];
 				tempNumValues++;
-				tempValueSum += weightedInstances.getWeight(k);
+				tempValueSum += tempWeights[k];
 			} // Of for k
 
 			// Obtain parameters.
@@ -172,6 +174,32 @@ public class BayesClassifier extends SimpleClassifier {
 		// Arrays.deepToString(gaussianParameters));
 	}// Of calculateGausssianParameters
 
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @param paraClass
+	 *            The given class.
+	 * @return The mean of the selected attribute for the class.
+	 ****************** 
+	 */
+	double getMu(int paraClass) {
+		return gaussianParameters[paraClass].mu;
+	}// Of getMu
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @param paraClass
+	 *            The given class.
+	 * @return The standard deviation of the selected attribute for the class.
+	 ****************** 
+	 */
+	double getSigma(int paraClass) {
+		return gaussianParameters[paraClass].sigma;
+	}// Of getSigma
+
 	/**
 	 ****************** 
 	 * For display.
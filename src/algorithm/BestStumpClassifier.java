@@ -0,0 +1,187 @@
+package algorithm;
+
+import java.io.FileReader;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import common.SimpleTools;
+
+/**
+ * The stump classifier checking all conditional attributes. Instead of a
+ * random attribute, the one with the lowest weighted error is selected. The
+ * attributes are checked in parallel.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class BestStumpClassifier extends StumpClassifier {
+
+	/**
+	 * The pool shared by all rounds. One worker for each processor.
+	 */
+	static final ForkJoinPool pool = new ForkJoinPool();
+
+	/**
+	 * Attribute ranges no larger than this are checked in one task.
+	 */
+	static final int ATTRIBUTES_PER_TASK = 2;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraWeightedInstances
+	 *            The given instances.
+	 ****************** 
+	 */
+	public BestStumpClassifier(WeightedInstances paraWeightedInstances) {
+		super(paraWeightedInstances);
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Train the classifier. All attributes are checked, and the best stump is
+	 * kept. For the same weight of correctly classified instances, the attribute
+	 * with the smaller index is preferred, so the result does not depend on
+	 * thread scheduling.
+	 ****************** 
+	 */
+	public void train() {
+		// Step 1. Check all attributes.
+		AttributeSearchTask tempTask = new AttributeSearchTask(weightedInstances, 0,
+				numConditions);
+		pool.invoke(tempTask);
+
+		// Step 2. Copy the best stump.
+		StumpClassifier tempBestStump = tempTask.resultStump;
+		selectedAttribute = tempBestStump.selectedAttribute;
+		bestCut = tempBestStump.bestCut;
+		leftLeafLabel = tempBestStump.leftLeafLabel;
+		rightLeafLabel = tempBestStump.rightLeafLabel;
+
+		SimpleTools.variableTrackingOutput(() -> "Best attribute = " + selectedAttribute + ", cut = "
+				+ bestCut + ", leftLeafLabel = " + leftLeafLabel + ", rightLeafLabel = "
+				+ rightLeafLabel);
+	}// Of train
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "I check all attributes.\r\n" + super.toString();
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		WeightedInstances tempWeightedInstances = null;
+		String tempFilename = "src/data/wdbc_norm_ex.arff";
+		try {
+			FileReader tempFileReader = new FileReader(tempFilename);
+			tempWeightedInstances = new WeightedInstances(tempFileReader);
+			tempFileReader.close();
+		} catch (Exception ee) {
+			System.out.println("Cannot read the file: " + tempFilename + "\r\n" + ee);
+			System.exit(0);
+		} // Of try
+
+		BestStumpClassifier tempClassifier = new BestStumpClassifier(tempWeightedInstances);
+		tempClassifier.train();
+		System.out.println(tempClassifier);
+
+		System.out.println(Arrays.toString(tempClassifier.computeCorrectnessArray()));
+	}// Of main
+
+	/**
+	 ************************* 
+	 * Search the best stump on a range of attributes. The range is split in two
+	 * until it is small enough.
+	 ************************* 
+	 */
+	private static class AttributeSearchTask extends RecursiveAction {
+		/**
+		 * Just the requirement of some classes, any number is ok.
+		 */
+		private static final long serialVersionUID = 7765310921L;
+
+		/**
+		 * The weighted instances.
+		 */
+		WeightedInstances weightedInstances;
+
+		/**
+		 * The first attribute of the range.
+		 */
+		int fromAttribute;
+
+		/**
+		 * The attribute after the range.
+		 */
+		int toAttribute;
+
+		/**
+		 * The best stump on the range.
+		 */
+		StumpClassifier resultStump;
+
+		/**
+		 * The weight of correctly classified instances of the best stump.
+		 */
+		double resultCorrect;
+
+		public AttributeSearchTask(WeightedInstances paraWeightedInstances, int paraFrom,
+				int paraTo) {
+			weightedInstances = paraWeightedInstances;
+			fromAttribute = paraFrom;
+			toAttribute = paraTo;
+		}// Of the constructor
+
+		protected void compute() {
+			// Small enough, check attributes one by one.
+			if (toAttribute - fromAttribute <= ATTRIBUTES_PER_TASK) {
+				resultCorrect = -1;
+				for (int i = fromAttribute; i < toAttribute; i++) {
+					StumpClassifier tempStump = new StumpClassifier(weightedInstances);
+					tempStump.selectedAttribute = i;
+					double tempCorrect = tempStump.searchBestCut(i);
+					if (resultCorrect < tempCorrect) {
+						resultCorrect = tempCorrect;
+						resultStump = tempStump;
+					} // Of if
+				} // Of for i
+				return;
+			} // Of if
+
+			// Split in two.
+			int tempMiddle = (fromAttribute + toAttribute) / 2;
+			AttributeSearchTask tempLeftTask = new AttributeSearchTask(weightedInstances,
+					fromAttribute, tempMiddle);
+			AttributeSearchTask tempRightTask = new AttributeSearchTask(weightedInstances,
+					tempMiddle, toAttribute);
+			invokeAll(tempLeftTask, tempRightTask);
+
+			if (tempLeftTask.resultCorrect < tempRightTask.resultCorrect) {
+				resultCorrect = tempRightTask.resultCorrect;
+				resultStump = tempRightTask.resultStump;
+			} else {
+				resultCorrect = tempLeftTask.resultCorrect;
+				resultStump = tempLeftTask.resultStump;
+			} // Of if
+		}// Of compute
+	}// Of class AttributeSearchTask
+}// Of class BestStumpClassifier
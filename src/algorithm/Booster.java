@@ -1,11 +1,13 @@
 package algorithm;
 
-import java.io.FileReader;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import weka.core.Instance;
 import weka.core.Instances;
-import common.Common;
+import common.StepCounter;
 import common.SimpleTools;
 
 /**
@@ -57,11 +59,26 @@ public class Booster extends Object {
 	 */
 	public static final int Gaussian_CLASSIFIER = 2;
 
+	/**
+	 * Base classifier: stump classifier checking all attributes.
+	 */
+	public static final int BEST_STUMP_CLASSIFIER = 3;
+
+	/**
+	 * Base classifier: stump classifier on quantized attributes.
+	 */
+	public static final int HISTOGRAM_STUMP_CLASSIFIER = 4;
+
 	/**
 	 * The training testing scheme.
 	 */
 	int baseClassifierType;
 
+	/**
+	 * Batches no larger than this are classified in one task.
+	 */
+	static final int ROWS_PER_TASK = 1024;
+
 	/**
 	 * Classifiers.
 	 */
@@ -83,15 +100,97 @@ public class Booster extends Object {
 	double[] classifierWeights;
 
 	/**
-	 * The training data.
+	 * The weighted votes of classifiers trained so far on each training
+	 * instance. The votes of instance i for class c are stored in
+	 * trainingVotes[i * numClasses + c]. Only the newest classifier is added in
+	 * each round.
+	 */
+	double[] trainingVotes;
+
+	/**
+	 * The training accuracy of the booster after each round.
+	 */
+	double[] roundTrainingAccuracies;
+
+	/**
+	 * The header of the training data, i.e., the attributes without
+	 * instances. The last attribute is the class.
+	 */
+	Instances trainingHeader;
+
+	/**
+	 * The training data. If it is read from a file as a whole, it is null
+	 * until required, since training only uses the column store.
+	 * 
+	 * @see #getTrainingData()
 	 */
 	Instances trainingData;
 
 	/**
-	 * The testing data.
+	 * The training data in the data cache, whose column store is shared by
+	 * weighted instances. Null if the training data is not read from a file as
+	 * a whole.
+	 */
+	CachedData cachedTrainingData;
+
+	/**
+	 * The indices of the training instances in cachedTrainingData, in
+	 * ascending order. Null if all are used.
+	 */
+	int[] trainingIndices;
+
+	/**
+	 * The weighted training data. It is kept after training, so that the
+	 * presorted indices are reused when the booster is trained again.
+	 */
+	WeightedInstances weightedTrainingData;
+
+	/**
+	 * The testing data. Null if the testing data in the data cache is used.
 	 */
 	Instances testingData;
 
+	/**
+	 * The testing data in the data cache, which is tested through its column
+	 * store. Null if testingData is used.
+	 */
+	CachedData cachedTestingData;
+
+	/**
+	 * The indices of the testing instances in cachedTestingData, in ascending
+	 * order. Null if all are used.
+	 */
+	int[] testingIndices;
+
+	/**
+	 * The pool to classify batches.
+	 */
+	ForkJoinPool classificationPool = ForkJoinPool.commonPool();
+
+	/**
+	 * Classify with early exit or not.
+	 */
+	boolean earlyExit = false;
+
+	/**
+	 * The sorted booster for early exit. It is built after training when
+	 * needed.
+	 */
+	SortedBooster sortedBooster;
+
+	/**
+	 * The compiled booster for scoring, shared by score() and batch
+	 * classification so that its vote buffers are reused across calls. It is
+	 * built after training when needed.
+	 */
+	CompiledBooster compiledBooster;
+
+	/**
+	 * The step counter of the run, shared with the weighted instances and the
+	 * base classifiers.
+	 */
+	StepCounter stepCounter = new StepCounter();
+
 	/**
 	 ****************** 
 	 * The first constructor. The testing set is the same as the training set.
@@ -102,23 +201,23 @@ public class Booster extends Object {
 	 */
 	public Booster(String paraTrainingFilename) {
 		// Step 1. Read training set.
+		// The instances are not built, since training uses the column store.
 		try {
-			FileReader tempFileReader = new FileReader(paraTrainingFilename);
-			trainingData = new Instances(tempFileReader);
-			tempFileReader.close();
+			cachedTrainingData = DataCache.sharedCache.get(paraTrainingFilename);
 		} catch (Exception ee) {
 			System.out.println("Cannot read the file: " + paraTrainingFilename + "\r\n" + ee);
 			System.exit(0);
 		} // Of try
 
-		// Step 2. Set the last attribute as the class index.
-		trainingData.setClassIndex(trainingData.numAttributes() - 1);
+		// Step 2. The last attribute is the class of the header.
+		trainingHeader = cachedTrainingData.getHeader();
 
 		// Step 5. The testing data is the same as the training data.
-		testingData = trainingData;
+		cachedTestingData = cachedTrainingData;
 		trainingTestingScheme = USE_TRAINING_SET;
 
-		SimpleTools.variableTrackingOutput("****************Data**********\r\n" + trainingData);
+		SimpleTools.variableTrackingOutput("****************Data**********\r\n{}",
+				trainingHeader);
 	}// Of the first constructor
 
 	/**
@@ -135,20 +234,15 @@ public class Booster extends Object {
 		// Step 1. Read the training set.
 		this(paraTrainingFilename);
 
-		// Step 2. Read training set.
+		// Step 2. Read the testing set. It is tested through its column store.
 		try {
-			FileReader tempFileReader = new FileReader(paraTestingFilename);
-			testingData = new Instances(tempFileReader);
-			tempFileReader.close();
+			cachedTestingData = DataCache.sharedCache.get(paraTestingFilename);
 		} catch (Exception ee) {
 			System.out.println("Cannot read the file: " + paraTestingFilename + "\r\n" + ee);
 			System.exit(0);
 		} // Of try
 
-		// Step 3. Set the last attribute as the class index.
-		testingData.setClassIndex(testingData.numAttributes() - 1);
-
-		// Step 4. Change the scheme.
+		// Step 3. Change the scheme.
 		trainingTestingScheme = SPECIFY_TESTING_SET;
 	}// Of the second constructor
 
@@ -163,30 +257,43 @@ public class Booster extends Object {
 	 ****************** 
 	 */
 	public Booster(String paraFilename, double paraTrainingFraction) {
-		// Step 1. Read data.
-		Instances tempWholeData = null;
+		// Step 1. Read data. The instances are not built.
 		try {
-			FileReader tempFileReader = new FileReader(paraFilename);
-			tempWholeData = new Instances(tempFileReader);
-			tempFileReader.close();
+			cachedTrainingData = DataCache.sharedCache.get(paraFilename);
 		} catch (Exception ee) {
 			System.out.println("Cannot read the file: " + paraFilename + "\r\n" + ee);
 			System.exit(0);
 		} // Of try
+		trainingHeader = cachedTrainingData.getHeader();
 
-		// Step 2. Split in two
-		Instances[] tempDataArray = SimpleTools.splitInTwo(tempWholeData, paraTrainingFraction);
+		// Step 2. Split the indices in two, the same as SimpleTools.splitInTwo().
+		int[][] tempIndicesArray = SimpleTools.splitIndicesInTwo(
+				cachedTrainingData.getNumInstances(), paraTrainingFraction);
+		trainingIndices = tempIndicesArray[0];
+		cachedTestingData = cachedTrainingData;
+		testingIndices = tempIndicesArray[1];
 
-		trainingData = tempDataArray[0];
-		testingData = tempDataArray[1];
+		// Step 3. Set the scheme.
+		trainingTestingScheme = SPLIT_IN_TWO;
+	}// Of the third constructor
 
-		// Step 3. Set the last attribute as the class index.
+	/**
+	 ****************** 
+	 * The fourth constructor. The data are already in memory, and the testing
+	 * set is the same as the training set.
+	 * 
+	 * @param paraTrainingData
+	 *            The training data.
+	 ****************** 
+	 */
+	public Booster(Instances paraTrainingData) {
+		trainingData = paraTrainingData;
 		trainingData.setClassIndex(trainingData.numAttributes() - 1);
-		testingData.setClassIndex(testingData.numAttributes() - 1);
+		trainingHeader = new Instances(trainingData, 0);
 
-		// Step 4. The testing data is the same as the training data.
-		trainingTestingScheme = SPLIT_IN_TWO;
-	}// Of the third constructor
+		testingData = trainingData;
+		trainingTestingScheme = USE_TRAINING_SET;
+	}// Of the fourth constructor
 
 	/**
 	 ****************** 
@@ -204,6 +311,8 @@ public class Booster extends Object {
 
 		// Step 2. Initialize classifier weights.
 		classifierWeights = new double[numClassifiers];
+		sortedBooster = null;
+		compiledBooster = null;
 	}// Of setNumBaseClassifiers
 
 	/**
@@ -230,6 +339,75 @@ public class Booster extends Object {
 		stopAfterConverge = paraBoolean;
 	}// Of setStopAfterConverge
 
+	/**
+	 ****************** 
+	 * Setter.
+	 * 
+	 * @param paraPool
+	 *            The pool to classify batches. The common pool is used by
+	 *            default.
+	 ****************** 
+	 */
+	public void setClassificationPool(ForkJoinPool paraPool) {
+		classificationPool = paraPool;
+	}// Of setClassificationPool
+
+	/**
+	 ****************** 
+	 * Setter. With early exit, classifiers are evaluated in descending order of
+	 * weights, and the classification stops as soon as the result is decided.
+	 * The result is the same as without early exit.
+	 * 
+	 * @param paraEarlyExit
+	 *            Classify with early exit or not.
+	 ****************** 
+	 */
+	public void setEarlyExit(boolean paraEarlyExit) {
+		earlyExit = paraEarlyExit;
+	}// Of setEarlyExit
+
+	/**
+	 ****************** 
+	 * Setter. Several boosters of the same run, e.g., repeated experiments,
+	 * may share a counter. It should not be shared by concurrent runs.
+	 * 
+	 * @param paraStepCounter
+	 *            The step counter of the run.
+	 ****************** 
+	 */
+	public void setStepCounter(StepCounter paraStepCounter) {
+		stepCounter = paraStepCounter;
+		if (weightedTrainingData != null) {
+			weightedTrainingData.setStepCounter(paraStepCounter);
+		} // Of if
+	}// Of setStepCounter
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The step counter of the run.
+	 ****************** 
+	 */
+	public StepCounter getStepCounter() {
+		return stepCounter;
+	}// Of getStepCounter
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The average number of evaluated classifiers for each instance
+	 *         classified with early exit. 0 if there is none.
+	 ****************** 
+	 */
+	public double getAverageEvaluatedClassifiers() {
+		if (sortedBooster == null) {
+			return 0;
+		} // Of if
+		return sortedBooster.getAverageEvaluated();
+	}// Of getAverageEvaluatedClassifiers
+
 	/**
 	 ****************** 
 	 * Train the booster.
@@ -239,25 +417,37 @@ public class Booster extends Object {
 	 */
 	public void train() {
 		// Step 1. Initialize.
-		WeightedInstances tempWeightedInstances = null;
+		if (weightedTrainingData == null) {
+			if (cachedTrainingData != null) {
+				weightedTrainingData = new WeightedInstances(trainingHeader,
+						cachedTrainingData.selectColumns(trainingIndices),
+						cachedTrainingData.selectLabels(trainingIndices));
+			} else {
+				weightedTrainingData = new WeightedInstances(trainingData);
+			} // Of if
+			weightedTrainingData.setStepCounter(stepCounter);
+		} else {
+			weightedTrainingData.resetWeights();
+		} // Of if
+		sortedBooster = null;
+		compiledBooster = null;
+		WeightedInstances tempWeightedInstances = weightedTrainingData;
+		boolean[] tempCorrectnessArray = new boolean[tempWeightedInstances.numInstances()];
+		int[] tempPredictionArray = new int[tempWeightedInstances.numInstances()];
+		trainingVotes = new double[tempWeightedInstances.numInstances()
+				* tempWeightedInstances.classAttribute().numValues()];
+		roundTrainingAccuracies = new double[classifiers.length];
+		double tempWrongWeight;
 		double tempError;
 		numClassifiers = 0;
 		SimpleTools.processTrackingOutput("Booster.train() Step 1\r\n");
 
 		// Step 2. Build other classifiers.
 		for (int i = 0; i < classifiers.length; i++) {
-			Common.runSteps ++;
-			// Step 2.1 Construct or adjust the weightedInstances
-			if (i == 0) {
-				tempWeightedInstances = new WeightedInstances(trainingData);
-			} else {
-				// Adjust the weights of the data.
-				tempWeightedInstances.adjustWeights(classifiers[i - 1].computeCorrectnessArray(),
-						classifierWeights[i - 1]);
+			if (StepCounter.COUNT_STEPS) {
+				stepCounter.increment();
 			} // Of if
-			SimpleTools.processTrackingOutput("Booster.train() Step 2.1\r\n");
-
-			// Step 2.2 Train the next classifier.
+			// Step 2.1 Train the next classifier.
 			switch (baseClassifierType) {
 			case STUMP_CLASSIFIER:
 				classifiers[i] = new StumpClassifier(tempWeightedInstances);
@@ -268,42 +458,121 @@ public class Booster extends Object {
 			case Gaussian_CLASSIFIER:
 				classifiers[i] = new GaussianClassifier(tempWeightedInstances);
 				break;
+			case BEST_STUMP_CLASSIFIER:
+				classifiers[i] = new BestStumpClassifier(tempWeightedInstances);
+				break;
+			case HISTOGRAM_STUMP_CLASSIFIER:
+				classifiers[i] = new HistogramStumpClassifier(tempWeightedInstances);
+				break;
 			default:
 				System.out.println(
 						"Internal error. Unsupported base classifier type: " + baseClassifierType);
 				System.exit(0);
 			}// Of switch
 			classifiers[i].train();
-			SimpleTools.processTrackingOutput("Booster.train() Step 2.2\r\n");
+			SimpleTools.processTrackingOutput("Booster.train() Step 2.1\r\n");
+
+			// Step 2.2 Classify each training instance only once. The
+			// correctness is also used to adjust the weights.
+			tempWrongWeight = classifiers[i].fillCorrectnessArray(tempCorrectnessArray,
+					tempPredictionArray);
+			tempError = tempWrongWeight;
+			if (tempError < 1e-6) {
+				tempError = 1e-6;
+			} // Of if
 
-			// tempAccuracy = classifiers[i].computeTrainingAccuracy();
-			tempError = classifiers[i].computeWeightedError();
 			// Set the classifier weight.
 			classifierWeights[i] = 0.5 * Math.log(1 / tempError - 1);
 			if (classifierWeights[i] < 1e-6) {
 				classifierWeights[i] = 0;
 			} // Of if
-				// SimpleTools.variableTrackingOutput("Booster.train()");
 
-			SimpleTools.variableTrackingOutput("Classifier #" + i + " , weighted error = "
-					+ tempError + ", weight = " + classifierWeights[i] + "\r\n");
+			final int tempRound = i;
+			final double tempRoundError = tempError;
+			SimpleTools.variableTrackingOutput(() -> "Classifier #" + tempRound
+					+ " , weighted error = " + tempRoundError + ", weight = "
+					+ classifierWeights[tempRound] + "\r\n");
 
 			numClassifiers++;
 
+			// Step 2.3 Add the votes of the new classifier only.
+			roundTrainingAccuracies[i] = addTrainingVotes(tempPredictionArray,
+					classifierWeights[i]);
+
 			// The accuracy is enough.
 			if (stopAfterConverge) {
-				double tempTrainingAccuracy = computeTrainingAccuray();
+				double tempTrainingAccuracy = roundTrainingAccuracies[i];
 				SimpleTools.variableTrackingOutput(
-						"The accuracy of the booster is: " + tempTrainingAccuracy + "\r\n");
+						() -> "The accuracy of the booster is: " + tempTrainingAccuracy + "\r\n");
 				if (tempTrainingAccuracy > 0.999999) {
 					SimpleTools.processTrackingOutput(
-							"Stop at the round: " + i + " due to converge.\r\n");
+							() -> "Stop at the round: " + tempRound + " due to converge.\r\n");
 					break;
 				} // Of if
 			} // Of if
+
+			// Step 2.4 Adjust the weights of the data for the next round.
+			if (i < classifiers.length - 1) {
+				tempWeightedInstances.adjustWeights(tempCorrectnessArray, classifierWeights[i],
+						tempWrongWeight);
+			} // Of if
 		} // Of for i
 	}// Of train
 
+	/**
+	 ****************** 
+	 * Add the votes of the newest classifier to the training votes, and compute
+	 * the training accuracy of the booster at the same time. It takes
+	 * O(numInstances * numClasses) time, no matter how many classifiers have
+	 * been trained. The result is the same as computeTrainingAccuray().
+	 * 
+	 * @param paraPredictionArray
+	 *            The labels predicted by the newest classifier.
+	 * @param paraClassifierWeight
+	 *            The weight of the newest classifier.
+	 * @return The training accuracy.
+	 ****************** 
+	 */
+	double addTrainingVotes(int[] paraPredictionArray, double paraClassifierWeight) {
+		int[] tempLabels = weightedTrainingData.getLabels();
+		int tempNumClasses = trainingVotes.length / tempLabels.length;
+		double tempCorrect = 0;
+		for (int i = 0; i < tempLabels.length; i++) {
+			int tempOffset = i * tempNumClasses;
+			trainingVotes[tempOffset + paraPredictionArray[i]] += paraClassifierWeight;
+
+			// The same as classify(Instance).
+			int tempBestLabel = -1;
+			double tempMax = -1;
+			for (int j = 0; j < tempNumClasses; j++) {
+				if (tempMax < trainingVotes[tempOffset + j]) {
+					tempMax = trainingVotes[tempOffset + j];
+					tempBestLabel = j;
+				} // Of if
+			} // Of for j
+
+			if (tempBestLabel == tempLabels[i]) {
+				tempCorrect++;
+			} // Of if
+		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(tempLabels.length);
+		} // Of if
+
+		return tempCorrect / tempLabels.length;
+	}// Of addTrainingVotes
+
+	/**
+	 ****************** 
+	 * Getter. It is available after training.
+	 * 
+	 * @return The training accuracy of the booster after each round.
+	 ****************** 
+	 */
+	public double[] getRoundTrainingAccuracies() {
+		return Arrays.copyOf(roundTrainingAccuracies, numClassifiers);
+	}// Of getRoundTrainingAccuracies
+
 	/**
 	 ****************** 
 	 * Classify an instance.
@@ -314,28 +583,281 @@ public class Booster extends Object {
 	 ****************** 
 	 */
 	public int classify(Instance paraInstance) {
-		double[] tempLabelsCountArray = new double[trainingData.classAttribute().numValues()];
+		if (earlyExit) {
+			if (sortedBooster == null) {
+				sortedBooster = compileSorted();
+			} // Of if
+			return sortedBooster.classify(paraInstance.toDoubleArray());
+		} // Of if
+
+		double[] tempLabelsCountArray = new double[trainingHeader.classAttribute().numValues()];
 		for (int i = 0; i < numClassifiers; i++) {
-			Common.runSteps ++;
+			// Clamped classifiers do not change the votes.
+			if (classifierWeights[i] == 0) {
+				continue;
+			} // Of if
 			int tempLabel = classifiers[i].classify(paraInstance);
 			tempLabelsCountArray[tempLabel] += classifierWeights[i];
 		} // Of for i
 
-		SimpleTools.variableTrackingOutput(Arrays.toString(tempLabelsCountArray));
+		SimpleTools.variableTrackingOutput("{}", tempLabelsCountArray);
 
 		int resultLabel = -1;
 		double tempMax = -1;
 		for (int i = 0; i < tempLabelsCountArray.length; i++) {
-			Common.runSteps ++;
 			if (tempMax < tempLabelsCountArray[i]) {
 				tempMax = tempLabelsCountArray[i];
 				resultLabel = i;
 			} // Of if
 		} // Of for
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(numClassifiers + tempLabelsCountArray.length);
+		} // Of if
 
 		return resultLabel;
 	}// Of classify
 
+	/**
+	 ****************** 
+	 * Score an instance into the given buffers. Except for the first call after
+	 * training, which compiles the booster, there is no allocation.
+	 * 
+	 * @param paraInstance
+	 *            The given instance.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the weighted votes.
+	 * @param paraMargins
+	 *            The buffer of length numClasses to store the margins, i.e.,
+	 *            the votes of each class minus the most votes of other classes,
+	 *            divided by the total weight. Ignored if null.
+	 * @param paraProbabilities
+	 *            The buffer of length numClasses to store the softmax of votes.
+	 *            Ignored if null.
+	 * @return The predicted label, the same as classify(Instance).
+	 ****************** 
+	 */
+	public int score(Instance paraInstance, double[] paraVotes, double[] paraMargins,
+			double[] paraProbabilities) {
+		return getCompiledBooster().score(paraInstance, paraVotes, paraMargins,
+				paraProbabilities);
+	}// Of score
+
+	/**
+	 ****************** 
+	 * Getter. If the training data is read from a file, the instances are
+	 * built the first time they are required.
+	 * 
+	 * @return The training data, with the last attribute as the class.
+	 ****************** 
+	 */
+	public synchronized Instances getTrainingData() {
+		if (trainingData == null) {
+			trainingData = cachedTrainingData.selectData(trainingIndices);
+		} // Of if
+
+		return trainingData;
+	}// Of getTrainingData
+
+	/**
+	 ****************** 
+	 * Getter. The pruned compiled booster is built the first time it is
+	 * required after training, and reused by later calls.
+	 * 
+	 * @return The compiled booster for scoring.
+	 ****************** 
+	 */
+	synchronized CompiledBooster getCompiledBooster() {
+		if (compiledBooster == null) {
+			compiledBooster = compile().prune();
+		} // Of if
+
+		return compiledBooster;
+	}// Of getCompiledBooster
+
+	/**
+	 ****************** 
+	 * Classify an instance within a budget. Classifiers are evaluated in
+	 * descending order of weights, and the current label is returned when the
+	 * budget runs out.
+	 * 
+	 * @param paraInstance
+	 *            The given instance.
+	 * @param paraMaxClassifiers
+	 *            The most classifiers to evaluate. No limit if it is not
+	 *            positive.
+	 * @param paraTimeBudget
+	 *            The time budget in nanoseconds, including building the sorted
+	 *            booster after training. No limit if it is not positive.
+	 * @return The label, whether it is exact, and the bound of the change of
+	 *         the margin.
+	 ****************** 
+	 */
+	public AnytimeResult classifyAnytime(Instance paraInstance, int paraMaxClassifiers,
+			long paraTimeBudget) {
+		long tempDeadline = Long.MAX_VALUE;
+		if (paraTimeBudget > 0) {
+			tempDeadline = System.nanoTime() + paraTimeBudget;
+		} // Of if
+
+		if (sortedBooster == null) {
+			sortedBooster = compileSorted();
+		} // Of if
+		return sortedBooster.classifyAnytime(paraInstance.toDoubleArray(), paraMaxClassifiers,
+				tempDeadline);
+	}// Of classifyAnytime
+
+	/**
+	 ****************** 
+	 * Classify a batch of instances in parallel.
+	 * 
+	 * @param paraInstances
+	 *            The given instances.
+	 * @return The predicted labels, the same as classify(Instance).
+	 ****************** 
+	 */
+	public int[] classifyBatch(Instances paraInstances) {
+		return classifyBatch(paraInstances, null);
+	}// Of classifyBatch
+
+	/**
+	 ****************** 
+	 * Classify a batch of instances in parallel.
+	 * 
+	 * @param paraInstances
+	 *            The given instances.
+	 * @param paraMargins
+	 *            The margins of each class for each instance, see
+	 *            CompiledBooster.computeMargins(). Its size should be
+	 *            numInstances * numClasses. Ignored if null.
+	 * @return The predicted labels, the same as classify(Instance).
+	 ****************** 
+	 */
+	public int[] classifyBatch(Instances paraInstances, double[][] paraMargins) {
+		int[] resultLabels = new int[paraInstances.numInstances()];
+		BatchClassificationTask tempTask = new BatchClassificationTask(getCompiledBooster(),
+				paraInstances, null, false, resultLabels, paraMargins, 0, resultLabels.length);
+		classificationPool.invoke(tempTask);
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add((long) resultLabels.length
+					* (numClassifiers + trainingHeader.classAttribute().numValues()));
+		} // Of if
+
+		return resultLabels;
+	}// Of classifyBatch
+
+	/**
+	 ****************** 
+	 * Classify a batch of rows in parallel.
+	 * 
+	 * @param paraData
+	 *            The values indexed by rows and then attributes, or by
+	 *            attributes and then rows if paraColumnMajor is true.
+	 * @param paraColumnMajor
+	 *            Whether or not the data are stored by columns.
+	 * @param paraMargins
+	 *            The margins of each class for each row, see
+	 *            CompiledBooster.computeMargins(). Its size should be numRows *
+	 *            numClasses. Ignored if null.
+	 * @return The predicted labels, the same as classify(Instance).
+	 ****************** 
+	 */
+	public int[] classifyBatch(double[][] paraData, boolean paraColumnMajor,
+			double[][] paraMargins) {
+		int tempNumRows = paraData.length;
+		if (paraColumnMajor) {
+			tempNumRows = paraData.length == 0 ? 0 : paraData[0].length;
+		} // Of if
+
+		int[] resultLabels = new int[tempNumRows];
+		BatchClassificationTask tempTask = new BatchClassificationTask(getCompiledBooster(),
+				null, paraData, paraColumnMajor, resultLabels, paraMargins, 0, tempNumRows);
+		classificationPool.invoke(tempTask);
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add((long) tempNumRows
+					* (numClassifiers + trainingHeader.classAttribute().numValues()));
+		} // Of if
+
+		return resultLabels;
+	}// Of classifyBatch
+
+	/**
+	 ****************** 
+	 * Compile the base classifiers trained so far into flat arrays for fast
+	 * scoring.
+	 * 
+	 * @return The compiled booster, which classifies the same as this one.
+	 ****************** 
+	 */
+	public CompiledBooster compile() {
+		return new CompiledBooster(this);
+	}// Of compile
+
+	/**
+	 ****************** 
+	 * Compact the stumps trained so far into lookup tables of attributes.
+	 * 
+	 * @return The compacted booster, which classifies the same as this one.
+	 * @throws IllegalArgumentException
+	 *             If some base classifier is not a stump.
+	 ****************** 
+	 */
+	public CompactedBooster compact() {
+		return new CompactedBooster(compile().prune());
+	}// Of compact
+
+	/**
+	 ****************** 
+	 * Compile the classifiers trained so far, and sort them in descending order
+	 * of weights for early exit.
+	 * 
+	 * @return The sorted booster, which classifies the same as this one.
+	 ****************** 
+	 */
+	public SortedBooster compileSorted() {
+		return new SortedBooster(compile().prune());
+	}// Of compileSorted
+
+	/**
+	 ****************** 
+	 * Generate straight-line code for the classifiers trained so far. If the
+	 * code cannot be compiled at runtime, the compiled booster is used instead.
+	 * 
+	 * @return The generated booster, which classifies the same as this one.
+	 ****************** 
+	 */
+	public GeneratedBooster generate() {
+		return new GeneratedBooster(compile().prune());
+	}// Of generate
+
+	/**
+	 ****************** 
+	 * Compile and quantize the classifiers trained so far. The result takes
+	 * less memory, while its predictions may differ slightly. See
+	 * QuantizedBooster.checkError().
+	 * 
+	 * @return The quantized booster.
+	 ****************** 
+	 */
+	public QuantizedBooster quantize() {
+		return compile().prune().quantize();
+	}// Of quantize
+
+	/**
+	 ****************** 
+	 * Save the classifiers trained so far to a binary model file, without the
+	 * training data. Load it with CompiledBooster.load() for scoring.
+	 * 
+	 * @param paraFilename
+	 *            The model file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 * @see CompiledBooster#save(String)
+	 ****************** 
+	 */
+	public void save(String paraFilename) throws IOException {
+		compile().save(paraFilename);
+	}// Of save
+
 	/**
 	 ****************** 
 	 * Test the booster on the training data.
@@ -344,8 +866,15 @@ public class Booster extends Object {
 	 ****************** 
 	 */
 	public double test() {
+		if (testingData == null) {
+			int[] tempLabels = cachedTestingData.selectLabels(testingIndices);
+			SimpleTools.processTrackingOutput(
+					() -> "Testing on " + tempLabels.length + " instances.\r\n");
+			return test(cachedTestingData.selectColumns(testingIndices), tempLabels);
+		} // Of if
+
 		SimpleTools.processTrackingOutput(
-				"Testing on " + testingData.numInstances() + " instances.\r\n");
+				() -> "Testing on " + testingData.numInstances() + " instances.\r\n");
 
 		return test(testingData);
 	}// Of test
@@ -360,19 +889,18 @@ public class Booster extends Object {
 	 ****************** 
 	 */
 	public double test(String paraFilename) {
-		// Step 1. Read data.
+		// Step 1. Read data. The instances are not built.
 		try {
-			FileReader tempFileReader = new FileReader(paraFilename);
-			testingData = new Instances(tempFileReader);
-			tempFileReader.close();
+			cachedTestingData = DataCache.sharedCache.get(paraFilename);
 		} catch (Exception ee) {
 			System.out.println("Cannot read the file: " + paraFilename + "\r\n" + ee);
 			System.exit(0);
 		} // Of try
+		testingData = null;
+		testingIndices = null;
 
-		// Step 2. Set the last attribute as the class index.
-		testingData.setClassIndex(testingData.numAttributes() - 1);
-		return test(trainingData);
+		// Step 2. Test through the column store.
+		return test();
 	}// Of test
 
 	/**
@@ -388,16 +916,49 @@ public class Booster extends Object {
 		double tempCorrect = 0;
 		paraInstances.setClassIndex(paraInstances.numAttributes() - 1);
 
+		int[] tempPredictions = classifyBatch(paraInstances);
 		for (int i = 0; i < paraInstances.numInstances(); i++) {
-			Common.runSteps ++;
-			Instance tempInstance = paraInstances.instance(i);
-			if (classify(tempInstance) == (int) tempInstance.classValue()) {
+			if (tempPredictions[i] == (int) paraInstances.instance(i).classValue()) {
 				tempCorrect++;
 			} // Of if
 		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(paraInstances.numInstances());
+		} // Of if
 
 		double resultAccuracy = tempCorrect / paraInstances.numInstances();
-		SimpleTools.variableTrackingOutput("The accuracy is: " + resultAccuracy);
+		SimpleTools.variableTrackingOutput(() -> "The accuracy is: " + resultAccuracy);
+
+		return resultAccuracy;
+	} // Of test
+
+	/**
+	 ****************** 
+	 * Test the booster with a column store, without building instances.
+	 * 
+	 * @param paraColumns
+	 *            The values of conditional attributes indexed by (attribute,
+	 *            instance).
+	 * @param paraLabels
+	 *            The class labels of instances.
+	 * @return The classification accuracy.
+	 ****************** 
+	 */
+	double test(double[][] paraColumns, int[] paraLabels) {
+		double tempCorrect = 0;
+
+		int[] tempPredictions = classifyBatch(paraColumns, true, null);
+		for (int i = 0; i < paraLabels.length; i++) {
+			if (tempPredictions[i] == paraLabels[i]) {
+				tempCorrect++;
+			} // Of if
+		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(paraLabels.length);
+		} // Of if
+
+		double resultAccuracy = tempCorrect / paraLabels.length;
+		SimpleTools.variableTrackingOutput(() -> "The accuracy is: " + resultAccuracy);
 
 		return resultAccuracy;
 	} // Of test
@@ -410,14 +971,22 @@ public class Booster extends Object {
 	 ****************** 
 	 */
 	public double computeTrainingAccuray() {
+		if (trainingData == null) {
+			return test(cachedTrainingData.selectColumns(trainingIndices),
+					cachedTrainingData.selectLabels(trainingIndices));
+		} // Of if
+
 		double tempCorrect = 0;
 
+		int[] tempPredictions = classifyBatch(trainingData);
 		for (int i = 0; i < trainingData.numInstances(); i++) {
-			Common.runSteps ++;
-			if (classify(trainingData.instance(i)) == (int) trainingData.instance(i).classValue()) {
+			if (tempPredictions[i] == (int) trainingData.instance(i).classValue()) {
 				tempCorrect++;
 			} // Of if
 		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(trainingData.numInstances());
+		} // Of if
 
 		double tempAccuracy = tempCorrect / trainingData.numInstances();
 
@@ -447,6 +1016,149 @@ public class Booster extends Object {
 
 		System.out.println("The training accuracy is: " + tempBooster.computeTrainingAccuray());
 		tempBooster.test();
+
+		// A near tie, where the merged weights of identical stumps round
+		// differently. Each row is labeled 1 with votes 0.2 + 0.1 + 0.3 against
+		// 0.6 of label 0, while the pruned booster has 0.2 + 0.3 + 0.1 = 0.6.
+		int[] tempAttributes = { 0, 0, 1, 0 };
+		int[] tempLeftLabels = { 0, 1, 1, 1 };
+		int[] tempRightLabels = { 0, 2, 2, 2 };
+		double[] tempWeights = { 0.6, 0.2, 0.1, 0.3 };
+		SimpleClassifier[] tempStumps = new SimpleClassifier[tempWeights.length];
+		for (int i = 0; i < tempStumps.length; i++) {
+			StumpClassifier tempStump = new StumpClassifier(tempBooster.weightedTrainingData);
+			tempStump.selectedAttribute = tempAttributes[i];
+			tempStump.bestCut = Double.MAX_VALUE;
+			tempStump.leftLeafLabel = tempLeftLabels[i];
+			tempStump.rightLeafLabel = tempRightLabels[i];
+			tempStumps[i] = tempStump;
+		} // Of for i
+		tempBooster.classifiers = tempStumps;
+		tempBooster.classifierWeights = tempWeights;
+		tempBooster.numClassifiers = tempWeights.length;
+		tempBooster.compiledBooster = null;
+
+		Instances tempData = tempBooster.getTrainingData();
+		int[] tempPredictions = tempBooster.classifyBatch(tempData);
+		double[][] tempColumns = new double[tempData.numAttributes()][tempData.numInstances()];
+		for (int i = 0; i < tempData.numInstances(); i++) {
+			for (int j = 0; j < tempData.numAttributes(); j++) {
+				tempColumns[j][i] = tempData.instance(i).value(j);
+			} // Of for j
+		} // Of for i
+		int[] tempColumnPredictions = tempBooster.classifyBatch(tempColumns, true, null);
+		int tempDifferences = 0;
+		for (int i = 0; i < tempData.numInstances(); i++) {
+			int tempLabel = tempBooster.classify(tempData.instance(i));
+			if (tempLabel != 1 || tempPredictions[i] != tempLabel
+					|| tempColumnPredictions[i] != tempLabel) {
+				tempDifferences++;
+			} // Of if
+		} // Of for i
+		System.out.println("Near tie: " + tempDifferences + " rows differ from label 1.");
 	}// Of main
 
+	/**
+	 ************************* 
+	 * Classify a range of rows. The range is split in two until it is small
+	 * enough. Each thread reuses its vote buffer of the compiled booster.
+	 ************************* 
+	 */
+	private static class BatchClassificationTask extends RecursiveAction {
+		/**
+		 * Just the requirement of some classes, any number is ok.
+		 */
+		private static final long serialVersionUID = 5184630217L;
+
+		/**
+		 * The compiled booster.
+		 */
+		CompiledBooster compiledBooster;
+
+		/**
+		 * The instances. If null, data is used.
+		 */
+		Instances instances;
+
+		/**
+		 * The data stored by rows or columns.
+		 */
+		double[][] data;
+
+		/**
+		 * Whether or not data is stored by columns.
+		 */
+		boolean columnMajor;
+
+		/**
+		 * The predicted labels.
+		 */
+		int[] labels;
+
+		/**
+		 * The margins. Ignored if null.
+		 */
+		double[][] margins;
+
+		/**
+		 * The first row of the range.
+		 */
+		int fromRow;
+
+		/**
+		 * The row after the range.
+		 */
+		int toRow;
+
+		public BatchClassificationTask(CompiledBooster paraCompiledBooster,
+				Instances paraInstances, double[][] paraData, boolean paraColumnMajor,
+				int[] paraLabels, double[][] paraMargins, int paraFrom, int paraTo) {
+			compiledBooster = paraCompiledBooster;
+			instances = paraInstances;
+			data = paraData;
+			columnMajor = paraColumnMajor;
+			labels = paraLabels;
+			margins = paraMargins;
+			fromRow = paraFrom;
+			toRow = paraTo;
+		}// Of the constructor
+
+		protected void compute() {
+			// Small enough, classify rows one by one.
+			if (toRow - fromRow <= ROWS_PER_TASK) {
+				double[] tempVotes = compiledBooster.getVoteBuffer();
+				double[] tempRow = null;
+				if (instances != null) {
+					tempRow = new double[instances.numAttributes()];
+				} // Of if
+
+				for (int i = fromRow; i < toRow; i++) {
+					if (instances != null) {
+						Instance tempInstance = instances.instance(i);
+						for (int j = 0; j < tempRow.length; j++) {
+							tempRow[j] = tempInstance.value(j);
+						} // Of for j
+						labels[i] = compiledBooster.classify(tempRow, tempVotes);
+					} else if (columnMajor) {
+						labels[i] = compiledBooster.classify(data, i, tempVotes);
+					} else {
+						labels[i] = compiledBooster.classify(data[i], tempVotes);
+					} // Of if
+
+					if (margins != null) {
+						compiledBooster.computeMargins(tempVotes, margins[i]);
+					} // Of if
+				} // Of for i
+				return;
+			} // Of if
+
+			// Split in two.
+			int tempMiddle = (fromRow + toRow) >>> 1;
+			invokeAll(
+					new BatchClassificationTask(compiledBooster, instances, data, columnMajor,
+							labels, margins, fromRow, tempMiddle),
+					new BatchClassificationTask(compiledBooster, instances, data, columnMajor,
+							labels, margins, tempMiddle, toRow));
+		}// Of compute
+	}// Of class BatchClassificationTask
 }// Of class Booster
@@ -0,0 +1,363 @@
+package algorithm;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * The parsed data of a file in the data cache, with structures derived from
+ * it. The data should not be changed, since it is shared by all users of the
+ * cache. For a mapped columnar file or a file parsed by the fast reader, the
+ * instances are built only when first required, since users of the header or
+ * the column store do not need them.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class CachedData extends Object {
+
+	/**
+	 * The canonical path of the file.
+	 */
+	final String canonicalPath;
+
+	/**
+	 * The size of the file when it was read.
+	 */
+	final long fileSize;
+
+	/**
+	 * The last modified time of the file when it was read.
+	 */
+	final long lastModified;
+
+	/**
+	 * The header, i.e., the attributes without instances. The last attribute
+	 * is the class.
+	 */
+	final Instances header;
+
+	/**
+	 * The number of instances.
+	 */
+	final int numInstances;
+
+	/**
+	 * The data, with the last attribute as the class. Null until required if
+	 * the file is mapped or parsed by the fast reader.
+	 */
+	private Instances data;
+
+	/**
+	 * The fast reader of the file, to build the data when required. Null if
+	 * the data are read otherwise.
+	 */
+	private final FastArffReader reader;
+
+	/**
+	 * The mapped file, null if the file is in ARFF.
+	 */
+	final ColumnarDataset dataset;
+
+	/**
+	 * The estimated memory of the data and the column store.
+	 */
+	final long numBytes;
+
+	/**
+	 * The values of conditional attributes indexed by (attribute, instance).
+	 * They are built the first time they are required.
+	 */
+	private double[][] columns;
+
+	/**
+	 * The class labels of instances.
+	 */
+	private int[] labels;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraCanonicalPath
+	 *            The canonical path of the file.
+	 * @param paraFileSize
+	 *            The size of the file.
+	 * @param paraLastModified
+	 *            The last modified time of the file.
+	 * @param paraData
+	 *            The data, null if the file is mapped or read by the fast
+	 *            reader.
+	 * @param paraDataset
+	 *            The mapped file, null if the file is in ARFF.
+	 * @param paraReader
+	 *            The fast reader which has parsed the file, null if the data
+	 *            are read otherwise. Its column store is shared.
+	 ****************** 
+	 */
+	CachedData(String paraCanonicalPath, long paraFileSize, long paraLastModified,
+			Instances paraData, ColumnarDataset paraDataset, FastArffReader paraReader) {
+		canonicalPath = paraCanonicalPath;
+		fileSize = paraFileSize;
+		lastModified = paraLastModified;
+		data = paraData;
+		dataset = paraDataset;
+		reader = paraReader;
+		if (reader != null) {
+			header = reader.getHeader();
+			numInstances = reader.getNumInstances();
+			columns = reader.getColumns();
+			labels = toColumnStoreLabels(reader.getLabels());
+		} else if (dataset != null) {
+			header = dataset.getHeader();
+			numInstances = dataset.getNumInstances();
+		} else {
+			header = new Instances(data, 0);
+			numInstances = data.numInstances();
+		} // Of if
+
+		// Each instance has an object and an array of values. The column store
+		// has the same values again.
+		long tempNumInstances = numInstances;
+		long tempNumAttributes = header.numAttributes();
+		numBytes = tempNumInstances * (64 + tempNumAttributes * 8)
+				+ tempNumInstances * tempNumAttributes * 8;
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Is the entry read from the current version of the file?
+	 * 
+	 * @param paraFileSize
+	 *            The current size of the file.
+	 * @param paraLastModified
+	 *            The current last modified time of the file.
+	 * @return True if neither is changed.
+	 ****************** 
+	 */
+	boolean isFresh(long paraFileSize, long paraLastModified) {
+		return (fileSize == paraFileSize) && (lastModified == paraLastModified);
+	}// Of isFresh
+
+	/**
+	 ****************** 
+	 * Build the column store. Columns of a mapped file are copied in bulk,
+	 * since weighted instances scan arrays on the heap.
+	 ****************** 
+	 */
+	private void buildColumns() {
+		int tempNumInstances = numInstances;
+		int tempNumConditions = header.numAttributes() - 1;
+		if (dataset != null) {
+			columns = dataset.copyColumns();
+			labels = toColumnStoreLabels(dataset.copyLabels());
+			return;
+		} // Of if
+
+		columns = new double[tempNumConditions][tempNumInstances];
+		labels = new int[tempNumInstances];
+		for (int i = 0; i < tempNumInstances; i++) {
+			Instance tempInstance = data.instance(i);
+			for (int j = 0; j < tempNumConditions; j++) {
+				columns[j][i] = tempInstance.value(j);
+			} // Of for j
+			labels[i] = (int) tempInstance.classValue();
+		} // Of for i
+	}// Of buildColumns
+
+	/**
+	 ****************** 
+	 * Convert missing labels to 0, the same as a missing class value cast to
+	 * int in the column store.
+	 * 
+	 * @param paraLabels
+	 *            The labels with -1 for missing values. They are not changed.
+	 * @return The labels, or a converted copy if some are missing.
+	 ****************** 
+	 */
+	private static int[] toColumnStoreLabels(int[] paraLabels) {
+		int[] resultLabels = paraLabels;
+		for (int i = 0; i < paraLabels.length; i++) {
+			if (paraLabels[i] < 0) {
+				if (resultLabels == paraLabels) {
+					resultLabels = paraLabels.clone();
+				} // Of if
+				resultLabels[i] = 0;
+			} // Of if
+		} // Of for i
+
+		return resultLabels;
+	}// Of toColumnStoreLabels
+
+	/**
+	 ****************** 
+	 * Getter. The data should not be changed by the caller. Instances are
+	 * built the first time if the file is mapped or parsed by the fast reader.
+	 * 
+	 * @return The data, with the last attribute as the class.
+	 ****************** 
+	 */
+	public synchronized Instances getData() {
+		if (data == null) {
+			data = (reader != null) ? reader.toInstances() : dataset.toInstances();
+		} // Of if
+
+		return data;
+	}// Of getData
+
+	/**
+	 ****************** 
+	 * Getter. The header should not be changed by the caller.
+	 * 
+	 * @return The attributes without instances, with the last one as the
+	 *         class.
+	 ****************** 
+	 */
+	public Instances getHeader() {
+		return header;
+	}// Of getHeader
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of instances.
+	 ****************** 
+	 */
+	public int getNumInstances() {
+		return numInstances;
+	}// Of getNumInstances
+
+	/**
+	 ****************** 
+	 * Getter. The arrays are shared, and should not be changed by the caller.
+	 * 
+	 * @return The column store, indexed by (attribute, instance).
+	 ****************** 
+	 */
+	public synchronized double[][] getColumns() {
+		if (columns == null) {
+			buildColumns();
+		} // Of if
+
+		return columns;
+	}// Of getColumns
+
+	/**
+	 ****************** 
+	 * Getter. The array is shared, and should not be changed by the caller.
+	 * 
+	 * @return The class labels of all instances.
+	 ****************** 
+	 */
+	public synchronized int[] getLabels() {
+		if (columns == null) {
+			buildColumns();
+		} // Of if
+
+		return labels;
+	}// Of getLabels
+
+	/**
+	 ****************** 
+	 * Select some instances, e.g., a training subset. They are the same as
+	 * those kept by SimpleTools.splitInTwo() for the same indices.
+	 * 
+	 * @param paraIndices
+	 *            The indices of the instances in ascending order. Null for all.
+	 * @return The selected instances, or the shared data if paraIndices is
+	 *         null.
+	 ****************** 
+	 */
+	public Instances selectData(int[] paraIndices) {
+		Instances tempData = getData();
+		if (paraIndices == null) {
+			return tempData;
+		} // Of if
+
+		Instances resultData = new Instances(tempData, paraIndices.length);
+		for (int i = 0; i < paraIndices.length; i++) {
+			resultData.add(tempData.instance(paraIndices[i]));
+		} // Of for i
+
+		return resultData;
+	}// Of selectData
+
+	/**
+	 ****************** 
+	 * Select the column store of some instances, without building instances.
+	 * 
+	 * @param paraIndices
+	 *            The indices of the instances. Null for all.
+	 * @return The values indexed by (attribute, selected instance), or the
+	 *         shared column store if paraIndices is null.
+	 ****************** 
+	 */
+	public double[][] selectColumns(int[] paraIndices) {
+		double[][] tempColumns = getColumns();
+		if (paraIndices == null) {
+			return tempColumns;
+		} // Of if
+
+		double[][] resultColumns = new double[tempColumns.length][paraIndices.length];
+		for (int i = 0; i < tempColumns.length; i++) {
+			double[] tempColumn = tempColumns[i];
+			double[] tempResultColumn = resultColumns[i];
+			for (int j = 0; j < paraIndices.length; j++) {
+				tempResultColumn[j] = tempColumn[paraIndices[j]];
+			} // Of for j
+		} // Of for i
+
+		return resultColumns;
+	}// Of selectColumns
+
+	/**
+	 ****************** 
+	 * Select the class labels of some instances.
+	 * 
+	 * @param paraIndices
+	 *            The indices of the instances. Null for all.
+	 * @return The labels of the selected instances, or the shared labels if
+	 *         paraIndices is null.
+	 ****************** 
+	 */
+	public int[] selectLabels(int[] paraIndices) {
+		int[] tempLabels = getLabels();
+		if (paraIndices == null) {
+			return tempLabels;
+		} // Of if
+
+		int[] resultLabels = new int[paraIndices.length];
+		for (int i = 0; i < paraIndices.length; i++) {
+			resultLabels[i] = tempLabels[paraIndices[i]];
+		} // Of for i
+
+		return resultLabels;
+	}// Of selectLabels
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The estimated memory in bytes.
+	 ****************** 
+	 */
+	public long getNumBytes() {
+		return numBytes;
+	}// Of getNumBytes
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return canonicalPath + " (" + numInstances + " instances, about " + numBytes
+				+ " bytes)";
+	}// Of toString
+}// Of class CachedData
@@ -0,0 +1,545 @@
+package algorithm;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * A dataset in a binary column-oriented file. The file is mapped into memory
+ * instead of parsed, so loading takes little time, and the page cache is
+ * shared by all JVMs reading the same file. getColumn() exposes a column as a
+ * read-only buffer without copying. Training scans double arrays on the heap,
+ * so the column store for a booster is one bulk copy of each column, see
+ * copyColumns(), and no instance is built for it.<br>
+ * The file contains, in little endian: the magic number, the version, the
+ * number of instances, the number of attributes, the length of the header and
+ * the header, i.e., the ARFF header of the data in UTF-8. After padding to a
+ * multiple of 8 bytes, each conditional attribute has a column of doubles,
+ * with NaN for missing values. At last, the class attribute has a column of
+ * ints, with -1 for missing values. The last attribute is the class.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class ColumnarDataset extends Object {
+
+	/**
+	 * The magic number at the beginning of the file, "MFAB" in ASCII.
+	 */
+	public static final int MAGIC = 0x4D464142;
+
+	/**
+	 * The version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The bytes before the header.
+	 */
+	static final int PREFIX_BYTES = 20;
+
+	/**
+	 * The header, i.e., the attributes without instances.
+	 */
+	final Instances header;
+
+	/**
+	 * The number of instances.
+	 */
+	final int numInstances;
+
+	/**
+	 * The column of each conditional attribute, mapped from the file.
+	 */
+	final DoubleBuffer[] columns;
+
+	/**
+	 * The class labels, mapped from the file.
+	 */
+	final IntBuffer labels;
+
+	/**
+	 * The data as instances. It is built the first time it is required.
+	 */
+	private Instances instances;
+
+	/**
+	 ****************** 
+	 * The only constructor. Map the given file.
+	 * 
+	 * @param paraFilename
+	 *            The binary file.
+	 * @throws IOException
+	 *             If the file cannot be read, or it is not in this format.
+	 ****************** 
+	 */
+	public ColumnarDataset(String paraFilename) throws IOException {
+		RandomAccessFile tempFile = new RandomAccessFile(paraFilename, "r");
+		try {
+			FileChannel tempChannel = tempFile.getChannel();
+
+			// Step 1. The prefix and the header.
+			ByteBuffer tempPrefix = ByteBuffer.allocate(PREFIX_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			readFully(tempChannel, tempPrefix, 0);
+			tempPrefix.flip();
+			if (tempPrefix.getInt() != MAGIC) {
+				throw new IOException("Not a columnar dataset: " + paraFilename);
+			} // Of if
+			int tempVersion = tempPrefix.getInt();
+			if (tempVersion != VERSION) {
+				throw new IOException("Unsupported version " + tempVersion + ": " + paraFilename);
+			} // Of if
+			numInstances = tempPrefix.getInt();
+			int tempNumAttributes = tempPrefix.getInt();
+			int tempHeaderLength = tempPrefix.getInt();
+
+			ByteBuffer tempHeaderBytes = ByteBuffer.allocate(tempHeaderLength);
+			readFully(tempChannel, tempHeaderBytes, PREFIX_BYTES);
+			header = new Instances(new StringReader(
+					new String(tempHeaderBytes.array(), StandardCharsets.UTF_8)));
+			header.setClassIndex(header.numAttributes() - 1);
+			if (header.numAttributes() != tempNumAttributes) {
+				throw new IOException("Inconsistent header: " + paraFilename);
+			} // Of if
+
+			// Step 2. Map each column, so that the file may exceed 2 GB.
+			long tempOffset = getDataOffset(tempHeaderLength);
+			long tempColumnBytes = (long) numInstances * Double.BYTES;
+			long tempExpectedSize = tempOffset + (tempNumAttributes - 1) * tempColumnBytes
+					+ (long) numInstances * Integer.BYTES;
+			if (tempChannel.size() < tempExpectedSize) {
+				throw new IOException("Truncated file: " + paraFilename);
+			} // Of if
+
+			columns = new DoubleBuffer[tempNumAttributes - 1];
+			for (int i = 0; i < columns.length; i++) {
+				MappedByteBuffer tempBuffer = tempChannel.map(FileChannel.MapMode.READ_ONLY,
+						tempOffset, tempColumnBytes);
+				columns[i] = tempBuffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+				tempOffset += tempColumnBytes;
+			} // Of for i
+			labels = tempChannel
+					.map(FileChannel.MapMode.READ_ONLY, tempOffset,
+							(long) numInstances * Integer.BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		} finally {
+			// The mapping stays valid after the file is closed.
+			tempFile.close();
+		} // Of try
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Read bytes until the buffer is full.
+	 * 
+	 * @param paraChannel
+	 *            The channel.
+	 * @param paraBuffer
+	 *            The buffer.
+	 * @param paraPosition
+	 *            The position in the file.
+	 * @throws IOException
+	 *             If the file ends too early.
+	 ****************** 
+	 */
+	private static void readFully(FileChannel paraChannel, ByteBuffer paraBuffer,
+			long paraPosition) throws IOException {
+		long tempPosition = paraPosition;
+		while (paraBuffer.hasRemaining()) {
+			int tempRead = paraChannel.read(paraBuffer, tempPosition);
+			if (tempRead < 0) {
+				throw new IOException("Unexpected end of file.");
+			} // Of if
+			tempPosition += tempRead;
+		} // Of while
+	}// Of readFully
+
+	/**
+	 ****************** 
+	 * The offset of the first column, aligned to 8 bytes.
+	 * 
+	 * @param paraHeaderLength
+	 *            The length of the header in bytes.
+	 * @return The offset.
+	 ****************** 
+	 */
+	static long getDataOffset(int paraHeaderLength) {
+		return (PREFIX_BYTES + (long) paraHeaderLength + 7) & ~7L;
+	}// Of getDataOffset
+
+	/**
+	 ****************** 
+	 * Write the data in this format. The last attribute is the class, and it
+	 * should be nominal.
+	 * 
+	 * @param paraInstances
+	 *            The data.
+	 * @param paraFilename
+	 *            The binary file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 ****************** 
+	 */
+	public static void write(Instances paraInstances, String paraFilename) throws IOException {
+		int tempNumInstances = paraInstances.numInstances();
+		int tempClassIndex = paraInstances.numAttributes() - 1;
+		double[][] tempColumns = new double[tempClassIndex][tempNumInstances];
+		int[] tempLabels = new int[tempNumInstances];
+		for (int i = 0; i < tempNumInstances; i++) {
+			Instance tempInstance = paraInstances.instance(i);
+			for (int j = 0; j < tempClassIndex; j++) {
+				tempColumns[j][i] = tempInstance.value(j);
+			} // Of for j
+			double tempValue = tempInstance.value(tempClassIndex);
+			tempLabels[i] = Utils.isMissingValue(tempValue) ? -1 : (int) tempValue;
+		} // Of for i
+
+		write(paraInstances, tempColumns, tempLabels, paraFilename);
+	}// Of write
+
+	/**
+	 ****************** 
+	 * Write the column store in this format.
+	 * 
+	 * @param paraHeader
+	 *            The attributes. Instances in it are not written. The last
+	 *            attribute is the class, and it should be nominal.
+	 * @param paraColumns
+	 *            The values of conditional attributes indexed by (attribute,
+	 *            instance).
+	 * @param paraLabels
+	 *            The class labels, -1 for missing values.
+	 * @param paraFilename
+	 *            The binary file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 ****************** 
+	 */
+	public static void write(Instances paraHeader, double[][] paraColumns, int[] paraLabels,
+			String paraFilename) throws IOException {
+		int tempNumInstances = paraLabels.length;
+		int tempNumAttributes = paraHeader.numAttributes();
+		if (!paraHeader.attribute(tempNumAttributes - 1).isNominal()) {
+			throw new IllegalArgumentException("The last attribute should be nominal.");
+		} // Of if
+
+		byte[] tempHeaderBytes = new Instances(paraHeader, 0).toString()
+				.getBytes(StandardCharsets.UTF_8);
+		RandomAccessFile tempFile = new RandomAccessFile(paraFilename, "rw");
+		try {
+			tempFile.setLength(0);
+			FileChannel tempChannel = tempFile.getChannel();
+
+			// Step 1. The prefix and the header.
+			long tempOffset = getDataOffset(tempHeaderBytes.length);
+			ByteBuffer tempBuffer = ByteBuffer.allocate((int) tempOffset)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			tempBuffer.putInt(MAGIC);
+			tempBuffer.putInt(VERSION);
+			tempBuffer.putInt(tempNumInstances);
+			tempBuffer.putInt(tempNumAttributes);
+			tempBuffer.putInt(tempHeaderBytes.length);
+			tempBuffer.put(tempHeaderBytes);
+			tempBuffer.position((int) tempOffset);
+			tempBuffer.flip();
+			writeFully(tempChannel, tempBuffer);
+
+			// Step 2. Columns of conditional attributes, each in bulk.
+			tempBuffer = ByteBuffer.allocate(tempNumInstances * Double.BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < tempNumAttributes - 1; i++) {
+				tempBuffer.clear();
+				tempBuffer.asDoubleBuffer().put(paraColumns[i]);
+				writeFully(tempChannel, tempBuffer);
+			} // Of for i
+
+			// Step 3. The labels.
+			tempBuffer.clear();
+			tempBuffer.limit(tempNumInstances * Integer.BYTES);
+			tempBuffer.asIntBuffer().put(paraLabels);
+			writeFully(tempChannel, tempBuffer);
+		} finally {
+			tempFile.close();
+		} // Of try
+	}// Of write
+
+	/**
+	 ****************** 
+	 * Write all bytes of the buffer.
+	 * 
+	 * @param paraChannel
+	 *            The channel.
+	 * @param paraBuffer
+	 *            The buffer.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 ****************** 
+	 */
+	private static void writeFully(FileChannel paraChannel, ByteBuffer paraBuffer)
+			throws IOException {
+		while (paraBuffer.hasRemaining()) {
+			paraChannel.write(paraBuffer);
+		} // Of while
+	}// Of writeFully
+
+	/**
+	 ****************** 
+	 * Convert an ARFF file to this format. It is read by the fast reader if
+	 * supported.
+	 * 
+	 * @param paraArffFilename
+	 *            The ARFF file.
+	 * @param paraBinaryFilename
+	 *            The binary file.
+	 * @throws Exception
+	 *             If the files cannot be read or written.
+	 ****************** 
+	 */
+	public static void convert(String paraArffFilename, String paraBinaryFilename)
+			throws Exception {
+		FastArffReader tempReader = null;
+		try {
+			tempReader = new FastArffReader(paraArffFilename);
+		} catch (IllegalArgumentException ee) {
+			// Not supported by the fast reader, parse it with weka.
+			FileReader tempFileReader = new FileReader(paraArffFilename);
+			Instances tempData = new Instances(tempFileReader);
+			tempFileReader.close();
+
+			write(tempData, paraBinaryFilename);
+			return;
+		} // Of try
+
+		write(tempReader.getHeader(), tempReader.getColumns(), tempReader.getLabels(),
+				paraBinaryFilename);
+	}// Of convert
+
+	/**
+	 ****************** 
+	 * Is the file in this format? Only the magic number is checked.
+	 * 
+	 * @param paraFilename
+	 *            The file.
+	 * @return True if it starts with the magic number.
+	 ****************** 
+	 */
+	public static boolean isColumnarFile(String paraFilename) {
+		File tempFile = new File(paraFilename);
+		if (!tempFile.isFile() || (tempFile.length() < PREFIX_BYTES)) {
+			return false;
+		} // Of if
+
+		try {
+			RandomAccessFile tempRandomAccessFile = new RandomAccessFile(tempFile, "r");
+			try {
+				return Integer.reverseBytes(tempRandomAccessFile.readInt()) == MAGIC;
+			} finally {
+				tempRandomAccessFile.close();
+			} // Of try
+		} catch (IOException ee) {
+			return false;
+		} // Of try
+	}// Of isColumnarFile
+
+	/**
+	 ****************** 
+	 * Getter. The buffer is a view of the file, and no value is copied.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The values of all instances on the attribute.
+	 ****************** 
+	 */
+	public DoubleBuffer getColumn(int paraAttribute) {
+		return columns[paraAttribute].duplicate();
+	}// Of getColumn
+
+	/**
+	 ****************** 
+	 * Getter. The buffer is a view of the file, and no value is copied.
+	 * 
+	 * @return The class labels of all instances, -1 for missing values.
+	 ****************** 
+	 */
+	public IntBuffer getLabels() {
+		return labels.duplicate();
+	}// Of getLabels
+
+	/**
+	 ****************** 
+	 * Copy the columns to arrays, e.g., for the column store of weighted
+	 * instances. Each column is copied in bulk.
+	 * 
+	 * @return The values indexed by (attribute, instance).
+	 ****************** 
+	 */
+	public double[][] copyColumns() {
+		double[][] resultColumns = new double[columns.length][numInstances];
+		for (int i = 0; i < columns.length; i++) {
+			getColumn(i).get(resultColumns[i]);
+		} // Of for i
+
+		return resultColumns;
+	}// Of copyColumns
+
+	/**
+	 ****************** 
+	 * Copy the labels to an array.
+	 * 
+	 * @return The class labels of all instances, -1 for missing values.
+	 ****************** 
+	 */
+	public int[] copyLabels() {
+		int[] resultLabels = new int[numInstances];
+		getLabels().get(resultLabels);
+
+		return resultLabels;
+	}// Of copyLabels
+
+	/**
+	 ****************** 
+	 * The data as instances, for code working on Instances. They are built
+	 * once, and the same object is returned later.
+	 * 
+	 * @return The instances with the last attribute as the class.
+	 ****************** 
+	 */
+	public synchronized Instances toInstances() {
+		if (instances != null) {
+			return instances;
+		} // Of if
+
+		Instances tempInstances = new Instances(header, numInstances);
+		int tempNumAttributes = header.numAttributes();
+		for (int i = 0; i < numInstances; i++) {
+			double[] tempValues = new double[tempNumAttributes];
+			for (int j = 0; j < columns.length; j++) {
+				tempValues[j] = columns[j].get(i);
+			} // Of for j
+			int tempLabel = labels.get(i);
+			tempValues[tempNumAttributes - 1] = tempLabel < 0 ? Utils.missingValue() : tempLabel;
+			tempInstances.add(new DenseInstance(1.0, tempValues));
+		} // Of for i
+		tempInstances.setClassIndex(tempNumAttributes - 1);
+
+		instances = tempInstances;
+		return instances;
+	}// Of toInstances
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The header without instances.
+	 ****************** 
+	 */
+	public Instances getHeader() {
+		return header;
+	}// Of getHeader
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of instances.
+	 ****************** 
+	 */
+	public int getNumInstances() {
+		return numInstances;
+	}// Of getNumInstances
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of conditional attributes.
+	 ****************** 
+	 */
+	public int getNumConditions() {
+		return columns.length;
+	}// Of getNumConditions
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "I am a columnar dataset " + header.relationName() + " with " + numInstances
+				+ " instances and " + columns.length + " conditional attributes.";
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test. Convert the bundled data sets, load them again, and
+	 * compare the time with parsing ARFF.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = { "src/data/iris.arff", "src/data/wine.arff",
+				"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+		String tempDirectory = System.getProperty("java.io.tmpdir");
+
+		for (int i = 0; i < tempFilenames.length; i++) {
+			String tempBinaryFilename = new File(tempDirectory,
+					new File(tempFilenames[i]).getName() + ".bin").getPath();
+			try {
+				convert(tempFilenames[i], tempBinaryFilename);
+
+				long tempStart = System.nanoTime();
+				FileReader tempFileReader = new FileReader(tempFilenames[i]);
+				Instances tempParsed = new Instances(tempFileReader);
+				tempFileReader.close();
+				long tempParseTime = System.nanoTime() - tempStart;
+
+				tempStart = System.nanoTime();
+				ColumnarDataset tempDataset = new ColumnarDataset(tempBinaryFilename);
+				long tempMapTime = System.nanoTime() - tempStart;
+				Instances tempLoaded = tempDataset.toInstances();
+				long tempLoadTime = System.nanoTime() - tempStart;
+
+				int tempDifferent = 0;
+				for (int j = 0; j < tempParsed.numInstances(); j++) {
+					double[] tempFirst = tempParsed.instance(j).toDoubleArray();
+					double[] tempSecond = tempLoaded.instance(j).toDoubleArray();
+					for (int k = 0; k < tempFirst.length; k++) {
+						if (Double.doubleToLongBits(tempFirst[k]) != Double
+								.doubleToLongBits(tempSecond[k])) {
+							tempDifferent++;
+						} // Of if
+					} // Of for k
+				} // Of for j
+
+				System.out.println(tempDataset + " " + tempDifferent + " different values. "
+						+ "Parse ARFF: " + tempParseTime / 1000 + " us, map: " + tempMapTime / 1000
+						+ " us, to instances: " + tempLoadTime / 1000 + " us.");
+			} catch (Exception ee) {
+				System.out.println("Cannot convert the file: " + tempFilenames[i] + "\r\n" + ee);
+			} // Of try
+		} // Of for i
+	}// Of main
+}// Of class ColumnarDataset
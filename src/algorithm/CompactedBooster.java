@@ -0,0 +1,339 @@
+package algorithm;
+
+import java.io.FileReader;
+import java.util.Arrays;
+
+import weka.core.Instances;
+
+/**
+ * A stump ensemble compacted into piecewise constant lookup tables. All stumps
+ * on the same attribute are merged into one sorted array of breakpoints, and
+ * each interval between breakpoints stores the votes of these stumps for each
+ * class. Classifying a row takes one binary search for each used attribute, so
+ * the time depends on the number of attributes rather than the number of
+ * stumps.<br>
+ * The votes are added in another order than Booster.classify(), so they may
+ * differ in the last bits. When the best two classes are too close to be told
+ * apart under this rounding error, the row is classified again by the
+ * compiled booster in the original order. Therefore the result is exactly the
+ * same as Booster.classify().<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class CompactedBooster extends Object {
+
+	/**
+	 * The compiled booster for rows whose best two classes are too close.
+	 */
+	final CompiledBooster compiledBooster;
+
+	/**
+	 * The number of classes.
+	 */
+	final int numClasses;
+
+	/**
+	 * The attributes used by at least one stump.
+	 */
+	final int[] usedAttributes;
+
+	/**
+	 * The start of breakpoints of each used attribute in breakpoints. The last
+	 * element is the length of breakpoints.
+	 */
+	final int[] breakpointStarts;
+
+	/**
+	 * The sorted distinct cuts of each used attribute.
+	 */
+	final double[] breakpoints;
+
+	/**
+	 * The start of interval votes of each used attribute in intervalVotes.
+	 */
+	final int[] voteStarts;
+
+	/**
+	 * The votes of each interval. For used attribute a, interval k contains
+	 * values v with exactly k breakpoints no greater than v, and its votes for
+	 * class c are stored in intervalVotes[voteStarts[a] + k * numClasses + c].
+	 * NaN falls in the last interval, as stumps send it to the right leaf.
+	 */
+	final double[] intervalVotes;
+
+	/**
+	 * If the difference between the votes of the best two classes is no more
+	 * than it, the rounding error may change the result.
+	 */
+	final double tolerance;
+
+	/**
+	 * The buffer of votes for each thread.
+	 */
+	private final ThreadLocal<double[]> voteBuffers;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraCompiledBooster
+	 *            The compiled booster whose base classifiers are all stumps,
+	 *            possibly pruned.
+	 ****************** 
+	 */
+	CompactedBooster(CompiledBooster paraCompiledBooster) {
+		compiledBooster = paraCompiledBooster;
+		numClasses = paraCompiledBooster.numClasses;
+		int tempNumClassifiers = paraCompiledBooster.numClassifiers;
+
+		// Step 1. Group stumps by attributes.
+		int tempMaxAttribute = -1;
+		for (int i = 0; i < tempNumClassifiers; i++) {
+			if (paraCompiledBooster.types[i] != CompiledBooster.STUMP) {
+				throw new IllegalArgumentException("Only stumps can be compacted.");
+			} // Of if
+			tempMaxAttribute = Math.max(tempMaxAttribute, paraCompiledBooster.attributes[i]);
+		} // Of for i
+
+		int[] tempStumpCounts = new int[tempMaxAttribute + 1];
+		for (int i = 0; i < tempNumClassifiers; i++) {
+			tempStumpCounts[paraCompiledBooster.attributes[i]]++;
+		} // Of for i
+
+		int tempNumUsed = 0;
+		for (int i = 0; i < tempStumpCounts.length; i++) {
+			if (tempStumpCounts[i] > 0) {
+				tempNumUsed++;
+			} // Of if
+		} // Of for i
+		usedAttributes = new int[tempNumUsed];
+		tempNumUsed = 0;
+		for (int i = 0; i < tempStumpCounts.length; i++) {
+			if (tempStumpCounts[i] > 0) {
+				usedAttributes[tempNumUsed++] = i;
+			} // Of if
+		} // Of for i
+
+		// Step 2. Sorted distinct cuts of each used attribute.
+		double[][] tempBreakpointsMatrix = new double[tempNumUsed][];
+		int tempNumBreakpoints = 0;
+		int tempNumVotes = 0;
+		for (int i = 0; i < tempNumUsed; i++) {
+			double[] tempCuts = new double[tempStumpCounts[usedAttributes[i]]];
+			int tempCount = 0;
+			for (int j = 0; j < tempNumClassifiers; j++) {
+				if (paraCompiledBooster.attributes[j] == usedAttributes[i]) {
+					tempCuts[tempCount++] = paraCompiledBooster.cuts[j];
+				} // Of if
+			} // Of for j
+			Arrays.sort(tempCuts);
+
+			tempCount = 0;
+			for (int j = 0; j < tempCuts.length; j++) {
+				if ((tempCount == 0) || (tempCuts[j] != tempCuts[tempCount - 1])) {
+					tempCuts[tempCount++] = tempCuts[j];
+				} // Of if
+			} // Of for j
+			tempBreakpointsMatrix[i] = Arrays.copyOf(tempCuts, tempCount);
+
+			tempNumBreakpoints += tempCount;
+			tempNumVotes += (tempCount + 1) * numClasses;
+		} // Of for i
+
+		// Step 3. Votes of each interval.
+		breakpointStarts = new int[tempNumUsed + 1];
+		breakpoints = new double[tempNumBreakpoints];
+		voteStarts = new int[tempNumUsed];
+		intervalVotes = new double[tempNumVotes];
+		int tempBreakpointStart = 0;
+		int tempVoteStart = 0;
+		for (int i = 0; i < tempNumUsed; i++) {
+			double[] tempBreakpoints = tempBreakpointsMatrix[i];
+			breakpointStarts[i] = tempBreakpointStart;
+			voteStarts[i] = tempVoteStart;
+			System.arraycopy(tempBreakpoints, 0, breakpoints, tempBreakpointStart,
+					tempBreakpoints.length);
+
+			for (int j = 0; j < tempNumClassifiers; j++) {
+				if (paraCompiledBooster.attributes[j] != usedAttributes[i]) {
+					continue;
+				} // Of if
+
+				// Intervals up to the cut are on the left. The cut is compared
+				// numerically, so that -0.0 and 0.0 are the same breakpoint.
+				double tempCut = paraCompiledBooster.cuts[j];
+				int tempCutIndex = 0;
+				while (tempBreakpoints[tempCutIndex] < tempCut) {
+					tempCutIndex++;
+				} // Of while
+				int tempLeftLabel = paraCompiledBooster.leafLabels[j * 2];
+				int tempRightLabel = paraCompiledBooster.leafLabels[j * 2 + 1];
+				double tempAlpha = paraCompiledBooster.alphas[j];
+				for (int k = 0; k <= tempBreakpoints.length; k++) {
+					int tempLabel = k <= tempCutIndex ? tempLeftLabel : tempRightLabel;
+					intervalVotes[tempVoteStart + k * numClasses + tempLabel] += tempAlpha;
+				} // Of for k
+			} // Of for j
+
+			tempBreakpointStart += tempBreakpoints.length;
+			tempVoteStart += (tempBreakpoints.length + 1) * numClasses;
+		} // Of for i
+		breakpointStarts[tempNumUsed] = tempBreakpointStart;
+
+		// Step 4. The same rounding error as merged weights.
+		tolerance = paraCompiledBooster.tolerance;
+
+		voteBuffers = ThreadLocal.withInitial(() -> new double[numClasses]);
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Classify a row with a vote buffer of the current thread.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes, e.g.,
+	 *            Instance.toDoubleArray().
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow) {
+		return classify(paraRow, voteBuffers.get());
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify a row.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the weighted votes of
+	 *            each class. It is overwritten.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow, double[] paraVotes) {
+		// Step 1. Look up the interval of each used attribute.
+		for (int i = 0; i < numClasses; i++) {
+			paraVotes[i] = compiledBooster.constantVotes[i];
+		} // Of for i
+
+		for (int i = 0; i < usedAttributes.length; i++) {
+			double tempValue = paraRow[usedAttributes[i]];
+
+			// The number of breakpoints no greater than the value.
+			int tempStart = breakpointStarts[i];
+			int tempLow = tempStart;
+			int tempHigh = breakpointStarts[i + 1];
+			while (tempLow < tempHigh) {
+				int tempMiddle = (tempLow + tempHigh) >>> 1;
+				if (tempValue < breakpoints[tempMiddle]) {
+					tempHigh = tempMiddle;
+				} else {
+					tempLow = tempMiddle + 1;
+				} // Of if
+			} // Of while
+
+			int tempVoteIndex = voteStarts[i] + (tempLow - tempStart) * numClasses;
+			for (int j = 0; j < numClasses; j++) {
+				paraVotes[j] += intervalVotes[tempVoteIndex + j];
+			} // Of for j
+		} // Of for i
+
+		// Step 2. The best two classes.
+		int resultLabel = -1;
+		double tempMax = -1;
+		double tempSecondMax = -1;
+		for (int i = 0; i < numClasses; i++) {
+			if (tempMax < paraVotes[i]) {
+				tempSecondMax = tempMax;
+				tempMax = paraVotes[i];
+				resultLabel = i;
+			} else if (tempSecondMax < paraVotes[i]) {
+				tempSecondMax = paraVotes[i];
+			} // Of if
+		} // Of for i
+
+		// Step 3. Too close, vote in the original order.
+		if (tempMax - tempSecondMax <= tolerance) {
+			resultLabel = compiledBooster.classify(paraRow, paraVotes);
+		} // Of if
+
+		return resultLabel;
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of attributes used by stumps.
+	 ****************** 
+	 */
+	public int getNumUsedAttributes() {
+		return usedAttributes.length;
+	}// Of getNumUsedAttributes
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "I am a compacted booster with " + compiledBooster.numClassifiers + " stumps on "
+				+ usedAttributes.length + " attributes and " + breakpoints.length
+				+ " breakpoints.";
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test. The compacted booster should classify each instance the
+	 * same as the booster.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = { "src/data/iris.arff", "src/data/wine.arff",
+				"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+		int[] tempTypes = { Booster.STUMP_CLASSIFIER, Booster.BEST_STUMP_CLASSIFIER,
+				Booster.HISTOGRAM_STUMP_CLASSIFIER };
+
+		for (int i = 0; i < tempFilenames.length; i++) {
+			Instances tempData = null;
+			try {
+				FileReader tempFileReader = new FileReader(tempFilenames[i]);
+				tempData = new Instances(tempFileReader);
+				tempFileReader.close();
+			} catch (Exception ee) {
+				System.out.println("Cannot read the file: " + tempFilenames[i] + "\r\n" + ee);
+				System.exit(0);
+			} // Of try
+
+			for (int j = 0; j < tempTypes.length; j++) {
+				Booster tempBooster = new Booster(tempData);
+				tempBooster.setBaseClassifierType(tempTypes[j]);
+				tempBooster.setNumBaseClassifiers(1000);
+				tempBooster.train();
+				CompactedBooster tempCompacted = tempBooster.compact();
+
+				int tempDifferent = 0;
+				for (int k = 0; k < tempData.numInstances(); k++) {
+					if (tempBooster.classify(tempData.instance(k)) != tempCompacted
+							.classify(tempData.instance(k).toDoubleArray())) {
+						tempDifferent++;
+					} // Of if
+				} // Of for k
+				System.out.println(tempFilenames[i] + ", type " + tempTypes[j] + ": "
+						+ tempCompacted + " " + tempDifferent + " different predictions.");
+			} // Of for j
+		} // Of for i
+	}// Of main
+}// Of class CompactedBooster
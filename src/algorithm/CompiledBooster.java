@@ -0,0 +1,1121 @@
+package algorithm;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import common.SimpleTools;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * A trained booster compiled into flat primitive arrays for fast scoring.
+ * Stumps are stored as parallel arrays of attributes, cuts and leaf labels,
+ * while Bayes and Gaussian classifiers are stored as precomputed coefficients
+ * of each class. Classifying a row involves no virtual call and no allocation,
+ * and the result is exactly the same as Booster.classify(), since the votes are
+ * added in the same order with the same arithmetic. The object is immutable
+ * and may be shared by threads. It can be saved to a small binary file, and
+ * loaded for scoring without the training data.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class CompiledBooster extends Object {
+
+	/**
+	 * Base classifier: stump, including the best stump and the histogram stump.
+	 */
+	static final byte STUMP = 0;
+
+	/**
+	 * Base classifier: Bayes or Gaussian, i.e., a Gaussian density for each
+	 * class.
+	 */
+	static final byte GAUSSIAN = 1;
+
+	/**
+	 * The number of coefficients for each class of a Gaussian classifier: mu,
+	 * 2 * sigma * sigma, the first constant and the second constant.
+	 */
+	static final int COEFFICIENTS_PER_CLASS = 4;
+
+	/**
+	 * The pseudo probability lower than it is never chosen. The same as in
+	 * BayesClassifier and GaussianClassifier.
+	 */
+	static final double MIN_PSEUDO_PROBABILITY = -10000;
+
+	/**
+	 * The magic number at the beginning of a model file, "MFAM" in ASCII.
+	 */
+	public static final int MODEL_MAGIC = 0x4D46414D;
+
+	/**
+	 * The version of the model file format.
+	 */
+	public static final int MODEL_VERSION = 1;
+
+	/**
+	 * The header of the training data, i.e., the attributes without
+	 * instances. The last attribute is the class.
+	 */
+	final Instances header;
+
+	/**
+	 * The number of classes.
+	 */
+	final int numClasses;
+
+	/**
+	 * The number of base classifiers.
+	 */
+	final int numClassifiers;
+
+	/**
+	 * The type of each base classifier, STUMP or GAUSSIAN.
+	 */
+	final byte[] types;
+
+	/**
+	 * The selected attribute of each base classifier.
+	 */
+	final int[] attributes;
+
+	/**
+	 * The weight of each base classifier.
+	 */
+	final double[] alphas;
+
+	/**
+	 * The cut of each stump. Not used by other classifiers.
+	 */
+	final double[] cuts;
+
+	/**
+	 * The leaf labels of each stump. For stump i, leafLabels[2 * i] is for
+	 * attribute value less than the cut, and leafLabels[2 * i + 1] is for the
+	 * others. The leaf is chosen by an index instead of a branch, which is
+	 * hard to predict.
+	 */
+	final int[] leafLabels;
+
+	/**
+	 * The start of coefficients of each Gaussian classifier in coefficients.
+	 */
+	final int[] coefficientStarts;
+
+	/**
+	 * The coefficients of all Gaussian classifiers. For class c, the pseudo
+	 * probability is first + (second - (x - mu) * (x - mu) / denominator),
+	 * which is evaluated in the same order as the original classifier.
+	 */
+	final double[] coefficients;
+
+	/**
+	 * The sum of weights of all classifiers.
+	 */
+	final double totalWeight;
+
+	/**
+	 * The votes which do not depend on the row, i.e., of stumps with the same
+	 * label on both leaves. All zero if not pruned.
+	 */
+	final double[] constantVotes;
+
+	/**
+	 * The number of base classifiers before pruning.
+	 */
+	final int numOriginalClassifiers;
+
+	/**
+	 * The compiled booster before pruning, for rows whose best two classes are
+	 * too close. Null if not pruned.
+	 */
+	final CompiledBooster originalBooster;
+
+	/**
+	 * If the difference between the votes of the best two classes is no more
+	 * than it, merged weights may change the result. Each sum of n
+	 * non-negative weights is within n ulps of the exact one, whatever the
+	 * order.
+	 */
+	final double tolerance;
+
+	/**
+	 * The buffer of votes for each thread.
+	 */
+	private final ThreadLocal<double[]> voteBuffers;
+
+	/**
+	 ****************** 
+	 * The first constructor. Compile the base classifiers trained so far.
+	 * 
+	 * @param paraBooster
+	 *            The trained booster.
+	 ****************** 
+	 */
+	CompiledBooster(Booster paraBooster) {
+		header = new Instances(paraBooster.trainingHeader, 0);
+		numClasses = paraBooster.trainingHeader.classAttribute().numValues();
+		numClassifiers = paraBooster.numClassifiers;
+		types = new byte[numClassifiers];
+		attributes = new int[numClassifiers];
+		alphas = new double[numClassifiers];
+		cuts = new double[numClassifiers];
+		leafLabels = new int[numClassifiers * 2];
+		coefficientStarts = new int[numClassifiers];
+
+		// Step 1. Count the coefficients.
+		int tempNumCoefficients = 0;
+		for (int i = 0; i < numClassifiers; i++) {
+			if (!(paraBooster.classifiers[i] instanceof StumpClassifier)) {
+				tempNumCoefficients += numClasses * COEFFICIENTS_PER_CLASS;
+			} // Of if
+		} // Of for i
+		coefficients = new double[tempNumCoefficients];
+
+		// Step 2. Copy the parameters.
+		int tempStart = 0;
+		for (int i = 0; i < numClassifiers; i++) {
+			SimpleClassifier tempClassifier = paraBooster.classifiers[i];
+			attributes[i] = tempClassifier.selectedAttribute;
+			alphas[i] = paraBooster.classifierWeights[i];
+
+			if (tempClassifier instanceof StumpClassifier) {
+				StumpClassifier tempStump = (StumpClassifier) tempClassifier;
+				types[i] = STUMP;
+				cuts[i] = tempStump.bestCut;
+				leafLabels[i * 2] = tempStump.leftLeafLabel;
+				leafLabels[i * 2 + 1] = tempStump.rightLeafLabel;
+			} else if (tempClassifier instanceof BayesClassifier) {
+				BayesClassifier tempBayes = (BayesClassifier) tempClassifier;
+				types[i] = GAUSSIAN;
+				coefficientStarts[i] = tempStart;
+				for (int j = 0; j < numClasses; j++) {
+					double tempSigma = tempBayes.getSigma(j);
+					coefficients[tempStart++] = tempBayes.getMu(j);
+					coefficients[tempStart++] = 2 * tempSigma * tempSigma;
+					coefficients[tempStart++] = Math.log(tempBayes.classDistributionLaplacian[j]);
+					coefficients[tempStart++] = -Math.log(tempSigma);
+				} // Of for j
+			} else if (tempClassifier instanceof GaussianClassifier) {
+				GaussianClassifier tempGaussian = (GaussianClassifier) tempClassifier;
+				types[i] = GAUSSIAN;
+				coefficientStarts[i] = tempStart;
+				for (int j = 0; j < numClasses; j++) {
+					double tempSigma = tempGaussian.getSigma(j);
+					coefficients[tempStart++] = tempGaussian.getMu(j);
+					coefficients[tempStart++] = 2 * tempSigma * tempSigma;
+					coefficients[tempStart++] = Math.log(
+							tempGaussian.classDistributionLaplacian[j]) - Math.log(tempSigma);
+					coefficients[tempStart++] = 0;
+				} // Of for j
+			} else {
+				throw new IllegalArgumentException(
+						"Unsupported base classifier: " + tempClassifier.getClass().getName());
+			} // Of if
+		} // Of for i
+
+		double tempTotalWeight = 0;
+		for (int i = 0; i < numClassifiers; i++) {
+			tempTotalWeight += alphas[i];
+		} // Of for i
+		totalWeight = tempTotalWeight;
+
+		constantVotes = new double[numClasses];
+		numOriginalClassifiers = numClassifiers;
+		originalBooster = null;
+		tolerance = 2.0 * numClassifiers * Math.ulp(totalWeight);
+		voteBuffers = ThreadLocal.withInitial(() -> new double[numClasses]);
+	}// Of the first constructor
+
+	/**
+	 ****************** 
+	 * The second constructor. Prune the given compiled booster. Classifiers
+	 * with zero weight are dropped, stumps with the same label on both leaves
+	 * become constant votes, and identical stumps are merged by summing their
+	 * weights.
+	 * 
+	 * @param paraOriginalBooster
+	 *            The compiled booster to prune.
+	 ****************** 
+	 */
+	private CompiledBooster(CompiledBooster paraOriginalBooster) {
+		CompiledBooster tempOriginal = paraOriginalBooster;
+		header = tempOriginal.header;
+		numClasses = tempOriginal.numClasses;
+		numOriginalClassifiers = tempOriginal.numOriginalClassifiers;
+		originalBooster = tempOriginal.originalBooster == null ? tempOriginal
+				: tempOriginal.originalBooster;
+		totalWeight = tempOriginal.totalWeight;
+		tolerance = 2.0 * numOriginalClassifiers * Math.ulp(totalWeight);
+		constantVotes = tempOriginal.constantVotes.clone();
+
+		// Step 1. Map each classifier to its new index. -1 for dropped ones.
+		int[] tempNewIndices = new int[tempOriginal.numClassifiers];
+		HashMap<String, Integer> tempStumpIndices = new HashMap<String, Integer>();
+		int tempNumClassifiers = 0;
+		int tempNumCoefficients = 0;
+		for (int i = 0; i < tempOriginal.numClassifiers; i++) {
+			tempNewIndices[i] = -1;
+			double tempAlpha = tempOriginal.alphas[i];
+			if (tempAlpha == 0) {
+				continue;
+			} // Of if
+
+			if (tempOriginal.types[i] == STUMP) {
+				int tempLeftLabel = tempOriginal.leafLabels[i * 2];
+				int tempRightLabel = tempOriginal.leafLabels[i * 2 + 1];
+				if (tempLeftLabel == tempRightLabel) {
+					constantVotes[tempLeftLabel] += tempAlpha;
+					continue;
+				} // Of if
+
+				String tempKey = tempOriginal.attributes[i] + ","
+						+ Double.doubleToLongBits(tempOriginal.cuts[i]) + "," + tempLeftLabel
+						+ "," + tempRightLabel;
+				Integer tempIndex = tempStumpIndices.get(tempKey);
+				if (tempIndex != null) {
+					tempNewIndices[i] = tempIndex;
+					continue;
+				} // Of if
+				tempStumpIndices.put(tempKey, tempNumClassifiers);
+			} else {
+				tempNumCoefficients += numClasses * COEFFICIENTS_PER_CLASS;
+			} // Of if
+			tempNewIndices[i] = tempNumClassifiers;
+			tempNumClassifiers++;
+		} // Of for i
+
+		// Step 2. Copy the parameters and sum the weights.
+		numClassifiers = tempNumClassifiers;
+		types = new byte[numClassifiers];
+		attributes = new int[numClassifiers];
+		alphas = new double[numClassifiers];
+		cuts = new double[numClassifiers];
+		leafLabels = new int[numClassifiers * 2];
+		coefficientStarts = new int[numClassifiers];
+		coefficients = new double[tempNumCoefficients];
+		int tempStart = 0;
+		for (int i = 0; i < tempOriginal.numClassifiers; i++) {
+			int tempIndex = tempNewIndices[i];
+			if (tempIndex < 0) {
+				continue;
+			} // Of if
+
+			if (alphas[tempIndex] > 0) {
+				// A merged stump.
+				alphas[tempIndex] += tempOriginal.alphas[i];
+				continue;
+			} // Of if
+
+			types[tempIndex] = tempOriginal.types[i];
+			attributes[tempIndex] = tempOriginal.attributes[i];
+			alphas[tempIndex] = tempOriginal.alphas[i];
+			cuts[tempIndex] = tempOriginal.cuts[i];
+			leafLabels[tempIndex * 2] = tempOriginal.leafLabels[i * 2];
+			leafLabels[tempIndex * 2 + 1] = tempOriginal.leafLabels[i * 2 + 1];
+			if (types[tempIndex] == GAUSSIAN) {
+				coefficientStarts[tempIndex] = tempStart;
+				System.arraycopy(tempOriginal.coefficients, tempOriginal.coefficientStarts[i],
+						coefficients, tempStart, numClasses * COEFFICIENTS_PER_CLASS);
+				tempStart += numClasses * COEFFICIENTS_PER_CLASS;
+			} // Of if
+		} // Of for i
+
+		voteBuffers = ThreadLocal.withInitial(() -> new double[numClasses]);
+
+		SimpleTools.processTrackingOutput(() -> "Pruned " + numOriginalClassifiers
+				+ " base classifiers into " + numClassifiers + ".\r\n");
+	}// Of the second constructor
+
+	/**
+	 ****************** 
+	 * The third constructor. Build from the parameters of base classifiers,
+	 * e.g., those loaded from a model file.
+	 * 
+	 * @param paraHeader
+	 *            The header of the training data.
+	 * @param paraTypes
+	 *            The type of each base classifier.
+	 * @param paraAttributes
+	 *            The selected attribute of each base classifier.
+	 * @param paraAlphas
+	 *            The weight of each base classifier.
+	 * @param paraCuts
+	 *            The cut of each stump.
+	 * @param paraLeafLabels
+	 *            The left and right leaf labels of each stump.
+	 * @param paraCoefficientStarts
+	 *            The start of coefficients of each Gaussian classifier.
+	 * @param paraCoefficients
+	 *            The coefficients of all Gaussian classifiers.
+	 ****************** 
+	 */
+	private CompiledBooster(Instances paraHeader, byte[] paraTypes, int[] paraAttributes,
+			double[] paraAlphas, double[] paraCuts, int[] paraLeafLabels,
+			int[] paraCoefficientStarts, double[] paraCoefficients) {
+		header = paraHeader;
+		numClasses = paraHeader.classAttribute().numValues();
+		numClassifiers = paraTypes.length;
+		types = paraTypes;
+		attributes = paraAttributes;
+		alphas = paraAlphas;
+		cuts = paraCuts;
+		leafLabels = paraLeafLabels;
+		coefficientStarts = paraCoefficientStarts;
+		coefficients = paraCoefficients;
+
+		// The same order of addition as the first constructor.
+		double tempTotalWeight = 0;
+		for (int i = 0; i < numClassifiers; i++) {
+			tempTotalWeight += alphas[i];
+		} // Of for i
+		totalWeight = tempTotalWeight;
+
+		constantVotes = new double[numClasses];
+		numOriginalClassifiers = numClassifiers;
+		originalBooster = null;
+		tolerance = 2.0 * numClassifiers * Math.ulp(totalWeight);
+		voteBuffers = ThreadLocal.withInitial(() -> new double[numClasses]);
+	}// Of the third constructor
+
+	/**
+	 ****************** 
+	 * Save the model to a binary file. Only the header and the parameters of
+	 * base classifiers are stored, in little-endian order: MODEL_MAGIC,
+	 * MODEL_VERSION, the number of classifiers, the length of the header in
+	 * UTF-8 and the header in ARFF, then the type, attribute and alpha of each
+	 * classifier, followed by the cut and two leaf labels of a stump, or the
+	 * coefficients of each class of a Gaussian classifier, and finally the
+	 * CRC-32 of all bytes before it. A pruned booster
+	 * saves the booster before pruning, so that the loaded one classifies
+	 * exactly the same.
+	 * 
+	 * @param paraFilename
+	 *            The model file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 ****************** 
+	 */
+	public void save(String paraFilename) throws IOException {
+		if (originalBooster != null) {
+			originalBooster.save(paraFilename);
+			return;
+		} // Of if
+
+		// Step 1. Compute the size.
+		byte[] tempHeaderBytes = header.toString().getBytes(StandardCharsets.UTF_8);
+		int tempNumBytes = 5 * Integer.BYTES + tempHeaderBytes.length;
+		for (int i = 0; i < numClassifiers; i++) {
+			tempNumBytes += 1 + Integer.BYTES + Double.BYTES;
+			if (types[i] == STUMP) {
+				tempNumBytes += Double.BYTES + 2 * Integer.BYTES;
+			} else {
+				tempNumBytes += numClasses * COEFFICIENTS_PER_CLASS * Double.BYTES;
+			} // Of if
+		} // Of for i
+
+		// Step 2. Fill the buffer.
+		ByteBuffer tempBuffer = ByteBuffer.allocate(tempNumBytes).order(ByteOrder.LITTLE_ENDIAN);
+		tempBuffer.putInt(MODEL_MAGIC);
+		tempBuffer.putInt(MODEL_VERSION);
+		tempBuffer.putInt(numClassifiers);
+		tempBuffer.putInt(tempHeaderBytes.length);
+		tempBuffer.put(tempHeaderBytes);
+		for (int i = 0; i < numClassifiers; i++) {
+			tempBuffer.put(types[i]);
+			tempBuffer.putInt(attributes[i]);
+			tempBuffer.putDouble(alphas[i]);
+			if (types[i] == STUMP) {
+				tempBuffer.putDouble(cuts[i]);
+				tempBuffer.putInt(leafLabels[i * 2]);
+				tempBuffer.putInt(leafLabels[i * 2 + 1]);
+			} else {
+				for (int j = 0; j < numClasses * COEFFICIENTS_PER_CLASS; j++) {
+					tempBuffer.putDouble(coefficients[coefficientStarts[i] + j]);
+				} // Of for j
+			} // Of if
+		} // Of for i
+		CRC32 tempChecksum = new CRC32();
+		tempChecksum.update(tempBuffer.array(), 0, tempBuffer.position());
+		tempBuffer.putInt((int) tempChecksum.getValue());
+
+		// Step 3. Write at once.
+		FileOutputStream tempOutputStream = new FileOutputStream(paraFilename);
+		try {
+			tempOutputStream.write(tempBuffer.array());
+		} finally {
+			tempOutputStream.close();
+		} // Of try
+	}// Of save
+
+	/**
+	 ****************** 
+	 * Load a model saved by save(). The training data is not required.
+	 * 
+	 * @param paraFilename
+	 *            The model file.
+	 * @return The compiled booster, which may be pruned for faster scoring.
+	 * @throws IOException
+	 *             If the file cannot be read, or is not a valid model file.
+	 ****************** 
+	 */
+	public static CompiledBooster load(String paraFilename) throws IOException {
+		byte[] tempBytes = Files.readAllBytes(Paths.get(paraFilename));
+		ByteBuffer tempBuffer = ByteBuffer.wrap(tempBytes).order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			// Step 1. The prefix, the checksum and the header.
+			if (tempBuffer.getInt() != MODEL_MAGIC) {
+				throw new IOException("Not a model file: " + paraFilename);
+			} // Of if
+			int tempVersion = tempBuffer.getInt();
+			if (tempVersion != MODEL_VERSION) {
+				throw new IOException("Unsupported version " + tempVersion + ": " + paraFilename);
+			} // Of if
+			int tempChecksumStart = tempBytes.length - Integer.BYTES;
+			CRC32 tempChecksum = new CRC32();
+			tempChecksum.update(tempBytes, 0, tempChecksumStart);
+			if (tempBuffer.getInt(tempChecksumStart) != (int) tempChecksum.getValue()) {
+				throw new IOException("Corrupted model file: " + paraFilename);
+			} // Of if
+			tempBuffer.limit(tempChecksumStart);
+			int tempNumClassifiers = tempBuffer.getInt();
+			int tempHeaderLength = tempBuffer.getInt();
+			if ((tempNumClassifiers < 0) || (tempHeaderLength < 0)
+					|| (tempHeaderLength > tempBuffer.remaining())) {
+				throw new IOException("Corrupted model file: " + paraFilename);
+			} // Of if
+			byte[] tempHeaderBytes = new byte[tempHeaderLength];
+			tempBuffer.get(tempHeaderBytes);
+			Instances tempHeader = new Instances(
+					new StringReader(new String(tempHeaderBytes, StandardCharsets.UTF_8)));
+			tempHeader.setClassIndex(tempHeader.numAttributes() - 1);
+			int tempNumClasses = tempHeader.classAttribute().numValues();
+			int tempNumConditions = tempHeader.numAttributes() - 1;
+
+			// Step 2. Base classifiers.
+			byte[] tempTypes = new byte[tempNumClassifiers];
+			int[] tempAttributes = new int[tempNumClassifiers];
+			double[] tempAlphas = new double[tempNumClassifiers];
+			double[] tempCuts = new double[tempNumClassifiers];
+			int[] tempLeafLabels = new int[tempNumClassifiers * 2];
+			int[] tempCoefficientStarts = new int[tempNumClassifiers];
+			double[] tempCoefficients = new double[tempBuffer.remaining() / Double.BYTES];
+			int tempStart = 0;
+			for (int i = 0; i < tempNumClassifiers; i++) {
+				tempTypes[i] = tempBuffer.get();
+				tempAttributes[i] = tempBuffer.getInt();
+				tempAlphas[i] = tempBuffer.getDouble();
+				if ((tempAttributes[i] < 0) || (tempAttributes[i] >= tempNumConditions)) {
+					throw new IOException("Invalid attribute of classifier " + i + ": "
+							+ paraFilename);
+				} // Of if
+
+				if (tempTypes[i] == STUMP) {
+					tempCuts[i] = tempBuffer.getDouble();
+					for (int j = i * 2; j < i * 2 + 2; j++) {
+						tempLeafLabels[j] = tempBuffer.getInt();
+						if ((tempLeafLabels[j] < 0) || (tempLeafLabels[j] >= tempNumClasses)) {
+							throw new IOException("Invalid label of classifier " + i + ": "
+									+ paraFilename);
+						} // Of if
+					} // Of for j
+				} else if (tempTypes[i] == GAUSSIAN) {
+					tempCoefficientStarts[i] = tempStart;
+					for (int j = 0; j < tempNumClasses * COEFFICIENTS_PER_CLASS; j++) {
+						tempCoefficients[tempStart++] = tempBuffer.getDouble();
+					} // Of for j
+				} else {
+					throw new IOException("Invalid type of classifier " + i + ": "
+							+ paraFilename);
+				} // Of if
+			} // Of for i
+			if (tempBuffer.hasRemaining()) {
+				throw new IOException("Trailing bytes: " + paraFilename);
+			} // Of if
+
+			return new CompiledBooster(tempHeader, tempTypes, tempAttributes, tempAlphas,
+					tempCuts, tempLeafLabels, tempCoefficientStarts,
+					Arrays.copyOf(tempCoefficients, tempStart));
+		} catch (BufferUnderflowException | IndexOutOfBoundsException ee) {
+			throw new IOException("Truncated model file: " + paraFilename);
+		} // Of try
+	}// Of load
+
+	/**
+	 ****************** 
+	 * Prune the compiled booster for fewer evaluations of each row.
+	 * Classifiers with zero weight are dropped, stumps with the same label on
+	 * both leaves become constant votes, and identical stumps are merged. The
+	 * predictions of classify() are the same as before, while computeVotes()
+	 * may differ in the last bits.
+	 * 
+	 * @return The pruned compiled booster.
+	 ****************** 
+	 */
+	public CompiledBooster prune() {
+		return new CompiledBooster(this);
+	}// Of prune
+
+	/**
+	 ****************** 
+	 * Quantize the parameters for less memory.
+	 * 
+	 * @return The quantized booster, whose error can be checked against this
+	 *         one.
+	 ****************** 
+	 */
+	public QuantizedBooster quantize() {
+		return new QuantizedBooster(this);
+	}// Of quantize
+
+	/**
+	 ****************** 
+	 * Classify a row with a vote buffer of the current thread.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes, e.g.,
+	 *            Instance.toDoubleArray(). The class value is not used.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow) {
+		return classify(paraRow, voteBuffers.get());
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify a row.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the weighted votes of
+	 *            each class. It is overwritten.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow, double[] paraVotes) {
+		computeVotes(paraRow, paraVotes);
+		if (originalBooster != null && isClose(paraVotes)) {
+			// Merged weights may change the result, vote in the original order.
+			return originalBooster.classify(paraRow, paraVotes);
+		} // Of if
+
+		return getBestLabel(paraVotes);
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify a row stored by columns.
+	 * 
+	 * @param paraColumns
+	 *            The values indexed by attributes and then rows.
+	 * @param paraRow
+	 *            The index of the row.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the weighted votes of
+	 *            each class. It is overwritten.
+	 * @return The predicted label, the same as classify(double[]).
+	 ****************** 
+	 */
+	public int classify(double[][] paraColumns, int paraRow, double[] paraVotes) {
+		computeVotes(paraColumns, paraRow, paraVotes);
+		if (originalBooster != null && isClose(paraVotes)) {
+			// Merged weights may change the result, vote in the original order.
+			return originalBooster.classify(paraColumns, paraRow, paraVotes);
+		} // Of if
+
+		return getBestLabel(paraVotes);
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Are the best two classes too close to be told apart under the rounding
+	 * error of weights?
+	 * 
+	 * @param paraVotes
+	 *            The votes of each class.
+	 * @return True if the difference of their votes is within the tolerance.
+	 ****************** 
+	 */
+	boolean isClose(double[] paraVotes) {
+		double tempMax = -1;
+		double tempSecondMax = -1;
+		for (int i = 0; i < numClasses; i++) {
+			if (tempMax < paraVotes[i]) {
+				tempSecondMax = tempMax;
+				tempMax = paraVotes[i];
+			} else if (tempSecondMax < paraVotes[i]) {
+				tempSecondMax = paraVotes[i];
+			} // Of if
+		} // Of for i
+
+		return tempMax - tempSecondMax <= tolerance;
+	}// Of isClose
+
+	/**
+	 ****************** 
+	 * Compute the weighted votes of each class for a row.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 ****************** 
+	 */
+	public void computeVotes(double[] paraRow, double[] paraVotes) {
+		for (int i = 0; i < numClasses; i++) {
+			paraVotes[i] = constantVotes[i];
+		} // Of for i
+
+		for (int i = 0; i < numClassifiers; i++) {
+			int tempLabel = classifyBaseClassifier(i, paraRow[attributes[i]]);
+			paraVotes[tempLabel] += alphas[i];
+		} // Of for i
+	}// Of computeVotes
+
+	/**
+	 ****************** 
+	 * Compute the weighted votes of each class for an instance.
+	 * 
+	 * @param paraInstance
+	 *            The given instance.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 ****************** 
+	 */
+	public void computeVotes(Instance paraInstance, double[] paraVotes) {
+		for (int i = 0; i < numClasses; i++) {
+			paraVotes[i] = constantVotes[i];
+		} // Of for i
+
+		for (int i = 0; i < numClassifiers; i++) {
+			int tempLabel = classifyBaseClassifier(i, paraInstance.value(attributes[i]));
+			paraVotes[tempLabel] += alphas[i];
+		} // Of for i
+	}// Of computeVotes
+
+	/**
+	 ****************** 
+	 * Compute the weighted votes of each class for a row stored by columns.
+	 * 
+	 * @param paraColumns
+	 *            The values indexed by attributes and then rows.
+	 * @param paraRow
+	 *            The index of the row.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 ****************** 
+	 */
+	public void computeVotes(double[][] paraColumns, int paraRow, double[] paraVotes) {
+		for (int i = 0; i < numClasses; i++) {
+			paraVotes[i] = constantVotes[i];
+		} // Of for i
+
+		for (int i = 0; i < numClassifiers; i++) {
+			int tempLabel = classifyBaseClassifier(i, paraColumns[attributes[i]][paraRow]);
+			paraVotes[tempLabel] += alphas[i];
+		} // Of for i
+	}// Of computeVotes
+
+	/**
+	 ****************** 
+	 * The label with the most votes. For the same votes, the smaller label is
+	 * preferred, the same as Booster.classify().
+	 * 
+	 * @param paraVotes
+	 *            The votes of each class.
+	 * @return The label.
+	 ****************** 
+	 */
+	public int getBestLabel(double[] paraVotes) {
+		int resultLabel = -1;
+		double tempMax = -1;
+		for (int i = 0; i < numClasses; i++) {
+			if (tempMax < paraVotes[i]) {
+				tempMax = paraVotes[i];
+				resultLabel = i;
+			} // Of if
+		} // Of for i
+
+		return resultLabel;
+	}// Of getBestLabel
+
+	/**
+	 ****************** 
+	 * Compute the margin of each class, i.e., its votes minus the most votes of
+	 * other classes, divided by the total weight of classifiers. The margin is
+	 * in [-1, 1], and only the predicted class may have a positive one.
+	 * 
+	 * @param paraVotes
+	 *            The votes of each class.
+	 * @param paraMargins
+	 *            The buffer of length numClasses to store the margins.
+	 ****************** 
+	 */
+	public void computeMargins(double[] paraVotes, double[] paraMargins) {
+		// Step 1. The best two votes.
+		double tempMax = Double.NEGATIVE_INFINITY;
+		double tempSecondMax = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < numClasses; i++) {
+			if (tempMax < paraVotes[i]) {
+				tempSecondMax = tempMax;
+				tempMax = paraVotes[i];
+			} else if (tempSecondMax < paraVotes[i]) {
+				tempSecondMax = paraVotes[i];
+			} // Of if
+		} // Of for i
+
+		// Step 2. Compare each class with the best other one.
+		double tempScale = totalWeight > 0 ? 1 / totalWeight : 0;
+		for (int i = 0; i < numClasses; i++) {
+			double tempOtherMax = paraVotes[i] == tempMax ? tempSecondMax : tempMax;
+			if (numClasses == 1) {
+				tempOtherMax = 0;
+			} // Of if
+			paraMargins[i] = (paraVotes[i] - tempOtherMax) * tempScale;
+		} // Of for i
+	}// Of computeMargins
+
+	/**
+	 ****************** 
+	 * Compute the softmax of votes as the probability of each class.
+	 * 
+	 * @param paraVotes
+	 *            The votes of each class.
+	 * @param paraProbabilities
+	 *            The buffer of length numClasses to store the probabilities.
+	 ****************** 
+	 */
+	public void computeProbabilities(double[] paraVotes, double[] paraProbabilities) {
+		double tempMax = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < numClasses; i++) {
+			tempMax = Math.max(tempMax, paraVotes[i]);
+		} // Of for i
+
+		// Subtract the maximal votes to avoid overflow.
+		double tempSum = 0;
+		for (int i = 0; i < numClasses; i++) {
+			paraProbabilities[i] = Math.exp(paraVotes[i] - tempMax);
+			tempSum += paraProbabilities[i];
+		} // Of for i
+		for (int i = 0; i < numClasses; i++) {
+			paraProbabilities[i] /= tempSum;
+		} // Of for i
+	}// Of computeProbabilities
+
+	/**
+	 ****************** 
+	 * Score a row into the given buffers without any allocation.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the weighted votes.
+	 * @param paraMargins
+	 *            The buffer of length numClasses to store the margins, see
+	 *            computeMargins(). Ignored if null.
+	 * @param paraProbabilities
+	 *            The buffer of length numClasses to store the probabilities, see
+	 *            computeProbabilities(). Ignored if null.
+	 * @return The predicted label, the same as classify().
+	 ****************** 
+	 */
+	public int score(double[] paraRow, double[] paraVotes, double[] paraMargins,
+			double[] paraProbabilities) {
+		int resultLabel = classify(paraRow, paraVotes);
+		fillScores(paraVotes, paraMargins, paraProbabilities);
+
+		return resultLabel;
+	}// Of score
+
+	/**
+	 ****************** 
+	 * Score an instance into the given buffers without any allocation.
+	 * 
+	 * @param paraInstance
+	 *            The given instance.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the weighted votes.
+	 * @param paraMargins
+	 *            The buffer of length numClasses to store the margins. Ignored
+	 *            if null.
+	 * @param paraProbabilities
+	 *            The buffer of length numClasses to store the probabilities.
+	 *            Ignored if null.
+	 * @return The predicted label, the same as classify().
+	 ****************** 
+	 */
+	public int score(Instance paraInstance, double[] paraVotes, double[] paraMargins,
+			double[] paraProbabilities) {
+		computeVotes(paraInstance, paraVotes);
+		int resultLabel;
+		if (originalBooster != null && isClose(paraVotes)) {
+			// Merged weights may change the result, vote in the original order.
+			resultLabel = originalBooster.score(paraInstance, paraVotes, null, null);
+		} else {
+			resultLabel = getBestLabel(paraVotes);
+		} // Of if
+		fillScores(paraVotes, paraMargins, paraProbabilities);
+
+		return resultLabel;
+	}// Of score
+
+	/**
+	 ****************** 
+	 * Fill margins and probabilities with votes.
+	 * 
+	 * @param paraVotes
+	 *            The votes of each class.
+	 * @param paraMargins
+	 *            The buffer of margins. Ignored if null.
+	 * @param paraProbabilities
+	 *            The buffer of probabilities. Ignored if null.
+	 ****************** 
+	 */
+	private void fillScores(double[] paraVotes, double[] paraMargins,
+			double[] paraProbabilities) {
+		if (paraMargins != null) {
+			computeMargins(paraVotes, paraMargins);
+		} // Of if
+		if (paraProbabilities != null) {
+			computeProbabilities(paraVotes, paraProbabilities);
+		} // Of if
+	}// Of fillScores
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The vote buffer of the current thread, of length numClasses.
+	 ****************** 
+	 */
+	double[] getVoteBuffer() {
+		return voteBuffers.get();
+	}// Of getVoteBuffer
+
+	/**
+	 ****************** 
+	 * Classify a value with a base classifier.
+	 * 
+	 * @param paraIndex
+	 *            The index of the base classifier.
+	 * @param paraValue
+	 *            The value of its selected attribute.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	int classifyBaseClassifier(int paraIndex, double paraValue) {
+		if (types[paraIndex] == STUMP) {
+			return leafLabels[(paraIndex << 1) + (paraValue < cuts[paraIndex] ? 0 : 1)];
+		} // Of if
+
+		return classifyGaussian(coefficientStarts[paraIndex], paraValue);
+	}// Of classifyBaseClassifier
+
+	/**
+	 ****************** 
+	 * Classify a value with a Gaussian classifier.
+	 * 
+	 * @param paraStart
+	 *            The start of its coefficients.
+	 * @param paraValue
+	 *            The value of the selected attribute.
+	 * @return The label with the largest pseudo probability.
+	 ****************** 
+	 */
+	private int classifyGaussian(int paraStart, double paraValue) {
+		double tempBiggest = MIN_PSEUDO_PROBABILITY;
+		int resultBestIndex = 0;
+		int tempIndex = paraStart;
+		for (int i = 0; i < numClasses; i++) {
+			double tempDifference = paraValue - coefficients[tempIndex];
+			double tempPseudoProbability = coefficients[tempIndex + 2]
+					+ (coefficients[tempIndex + 3]
+							- tempDifference * tempDifference / coefficients[tempIndex + 1]);
+			if (tempBiggest < tempPseudoProbability) {
+				tempBiggest = tempPseudoProbability;
+				resultBestIndex = i;
+			} // Of if
+			tempIndex += COEFFICIENTS_PER_CLASS;
+		} // Of for i
+
+		return resultBestIndex;
+	}// Of classifyGaussian
+
+	/**
+	 ****************** 
+	 * Test the compiled booster.
+	 * 
+	 * @param paraInstances
+	 *            The testing set. The last attribute is the class.
+	 * @return The classification accuracy.
+	 ****************** 
+	 */
+	public double test(Instances paraInstances) {
+		double tempCorrect = 0;
+		double[] tempVotes = new double[numClasses];
+		int tempClassIndex = paraInstances.numAttributes() - 1;
+		for (int i = 0; i < paraInstances.numInstances(); i++) {
+			double[] tempRow = paraInstances.instance(i).toDoubleArray();
+			if (classify(tempRow, tempVotes) == (int) tempRow[tempClassIndex]) {
+				tempCorrect++;
+			} // Of if
+		} // Of for i
+
+		return tempCorrect / paraInstances.numInstances();
+	}// Of test
+
+	/**
+	 ****************** 
+	 * Getter. The header should not be changed by the caller.
+	 * 
+	 * @return The header of the training data, with the last attribute as the
+	 *         class.
+	 ****************** 
+	 */
+	public Instances getHeader() {
+		return header;
+	}// Of getHeader
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of base classifiers.
+	 ****************** 
+	 */
+	public int getNumClassifiers() {
+		return numClassifiers;
+	}// Of getNumClassifiers
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of classes.
+	 ****************** 
+	 */
+	public int getNumClasses() {
+		return numClasses;
+	}// Of getNumClasses
+
+	/**
+	 ****************** 
+	 * The memory of the parameters.
+	 * 
+	 * @return The number of bytes of all arrays, without headers.
+	 ****************** 
+	 */
+	public long getNumBytes() {
+		return types.length + attributes.length * 4L + alphas.length * 8L + cuts.length * 8L
+				+ leafLabels.length * 4L + coefficientStarts.length * 4L
+				+ coefficients.length * 8L + constantVotes.length * 8L;
+	}// Of getNumBytes
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		String resultString = "I am a compiled booster with " + numClassifiers
+				+ " base classifiers and " + numClasses + " classes.";
+		if (originalBooster != null) {
+			resultString += " I am pruned from " + numOriginalClassifiers + " base classifiers.";
+		} // Of if
+
+		return resultString;
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test. The compiled booster should classify each instance the
+	 * same as the booster.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = { "src/data/iris.arff", "src/data/wine.arff",
+				"src/data/wdbc_norm_ex.arff" };
+		int[] tempTypes = { Booster.STUMP_CLASSIFIER, Booster.BAYES_CLASSIFIER,
+				Booster.Gaussian_CLASSIFIER, Booster.BEST_STUMP_CLASSIFIER,
+				Booster.HISTOGRAM_STUMP_CLASSIFIER };
+
+		for (int i = 0; i < tempFilenames.length; i++) {
+			Instances tempData = null;
+			try {
+				FileReader tempFileReader = new FileReader(tempFilenames[i]);
+				tempData = new Instances(tempFileReader);
+				tempFileReader.close();
+			} catch (Exception ee) {
+				System.out.println("Cannot read the file: " + tempFilenames[i] + "\r\n" + ee);
+				System.exit(0);
+			} // Of try
+
+			for (int j = 0; j < tempTypes.length; j++) {
+				Booster tempBooster = new Booster(tempData);
+				tempBooster.setBaseClassifierType(tempTypes[j]);
+				tempBooster.setNumBaseClassifiers(100);
+				tempBooster.train();
+				CompiledBooster tempCompiled = tempBooster.compile();
+				CompiledBooster tempPruned = tempCompiled.prune();
+
+				// Save and load the model.
+				CompiledBooster tempLoaded = null;
+				long tempModelBytes = 0;
+				try {
+					File tempModelFile = File.createTempFile("model", ".bin");
+					tempModelFile.deleteOnExit();
+					tempPruned.save(tempModelFile.getPath());
+					tempModelBytes = tempModelFile.length();
+					tempLoaded = load(tempModelFile.getPath()).prune();
+				} catch (IOException ee) {
+					System.out.println("Cannot save or load the model.\r\n" + ee);
+					System.exit(0);
+				} // Of try
+
+				int tempDifferent = 0;
+				for (int k = 0; k < tempData.numInstances(); k++) {
+					Instance tempInstance = tempData.instance(k);
+					int tempLabel = tempBooster.classify(tempInstance);
+					if ((tempLabel != tempCompiled.classify(tempInstance.toDoubleArray()))
+							|| (tempLabel != tempPruned.classify(tempInstance.toDoubleArray()))
+							|| (tempLabel != tempLoaded.classify(tempInstance.toDoubleArray()))) {
+						tempDifferent++;
+					} // Of if
+				} // Of for k
+				System.out.println(tempFilenames[i] + ", type " + tempTypes[j] + ": "
+						+ tempDifferent + " different predictions, accuracy "
+						+ tempCompiled.test(tempData) + ", pruned into "
+						+ tempPruned.getNumClassifiers() + " base classifiers, saved in "
+						+ tempModelBytes + " bytes.");
+			} // Of for j
+		} // Of for i
+	}// Of main
+}// Of class CompiledBooster
@@ -0,0 +1,239 @@
+package algorithm;
+
+import java.io.File;
+import java.io.FileReader;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import common.SimpleTools;
+import weka.core.Instances;
+
+/**
+ * A cache of parsed data files, so that repeated experiments on the same file
+ * read it only once. Entries are keyed by the canonical path, and are read
+ * again if the size or the last modified time of the file is changed. The
+ * least recently used entries are evicted when the estimated memory exceeds
+ * the budget.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class DataCache extends Object {
+
+	/**
+	 * The cache shared by boosters. Its budget is a quarter of the heap.
+	 */
+	public static DataCache sharedCache = new DataCache(Runtime.getRuntime().maxMemory() / 4);
+
+	/**
+	 * The entries in the order of access, the least recently used first.
+	 */
+	private final LinkedHashMap<String, CachedData> entries;
+
+	/**
+	 * The memory budget in bytes.
+	 */
+	private long memoryBudget;
+
+	/**
+	 * The estimated memory of all entries.
+	 */
+	private long usedMemory;
+
+	/**
+	 * The number of requests served from the cache.
+	 */
+	private long numHits;
+
+	/**
+	 * The number of requests which read the file.
+	 */
+	private long numMisses;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraMemoryBudget
+	 *            The memory budget in bytes.
+	 ****************** 
+	 */
+	public DataCache(long paraMemoryBudget) {
+		entries = new LinkedHashMap<String, CachedData>(16, 0.75f, true);
+		memoryBudget = paraMemoryBudget;
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Get the data of a file, and read it if it is not cached or changed.
+	 * 
+	 * @param paraFilename
+	 *            The ARFF file or the columnar file.
+	 * @return The cached data.
+	 * @throws Exception
+	 *             If the file cannot be read.
+	 ****************** 
+	 */
+	public synchronized CachedData get(String paraFilename) throws Exception {
+		File tempFile = new File(paraFilename);
+		String tempPath = tempFile.getCanonicalPath();
+		long tempFileSize = tempFile.length();
+		long tempLastModified = tempFile.lastModified();
+
+		// Step 1. Cached and not changed.
+		CachedData resultData = entries.get(tempPath);
+		if ((resultData != null) && resultData.isFresh(tempFileSize, tempLastModified)) {
+			numHits++;
+			return resultData;
+		} // Of if
+
+		// Step 2. Read the file.
+		numMisses++;
+		if (resultData != null) {
+			entries.remove(tempPath);
+			usedMemory -= resultData.numBytes;
+		} // Of if
+
+		// Instances of a mapped file or a file parsed by the fast reader are
+		// built when required.
+		Instances tempData = null;
+		ColumnarDataset tempDataset = null;
+		FastArffReader tempReader = null;
+		if (ColumnarDataset.isColumnarFile(paraFilename)) {
+			tempDataset = new ColumnarDataset(paraFilename);
+		} else {
+			try {
+				tempReader = new FastArffReader(paraFilename);
+			} catch (IllegalArgumentException ee) {
+				// Not supported by the fast reader, parse it with weka.
+				FileReader tempFileReader = new FileReader(paraFilename);
+				tempData = new Instances(tempFileReader);
+				tempFileReader.close();
+			} // Of try
+		} // Of if
+		if (tempData != null) {
+			tempData.setClassIndex(tempData.numAttributes() - 1);
+		} // Of if
+		resultData = new CachedData(tempPath, tempFileSize, tempLastModified, tempData,
+				tempDataset, tempReader);
+
+		// Step 3. Keep it unless it is larger than the whole budget.
+		if (resultData.numBytes <= memoryBudget) {
+			entries.put(tempPath, resultData);
+			usedMemory += resultData.numBytes;
+			evict();
+		} // Of if
+
+		return resultData;
+	}// Of get
+
+	/**
+	 ****************** 
+	 * Evict the least recently used entries until within the budget.
+	 ****************** 
+	 */
+	private void evict() {
+		Iterator<CachedData> tempIterator = entries.values().iterator();
+		while ((usedMemory > memoryBudget) && tempIterator.hasNext()) {
+			CachedData tempData = tempIterator.next();
+			tempIterator.remove();
+			usedMemory -= tempData.numBytes;
+			SimpleTools.processTrackingOutput("Evicted {} from the data cache.\r\n", tempData);
+		} // Of while
+	}// Of evict
+
+	/**
+	 ****************** 
+	 * Setter. Entries are evicted if the new budget is smaller.
+	 * 
+	 * @param paraMemoryBudget
+	 *            The memory budget in bytes.
+	 ****************** 
+	 */
+	public synchronized void setMemoryBudget(long paraMemoryBudget) {
+		memoryBudget = paraMemoryBudget;
+		evict();
+	}// Of setMemoryBudget
+
+	/**
+	 ****************** 
+	 * Remove all entries.
+	 ****************** 
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		usedMemory = 0;
+	}// Of clear
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The estimated memory of all entries.
+	 ****************** 
+	 */
+	public synchronized long getUsedMemory() {
+		return usedMemory;
+	}// Of getUsedMemory
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of cached files.
+	 ****************** 
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}// Of size
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public synchronized String toString() {
+		return "I am a data cache with " + entries.size() + " files in " + usedMemory + " of "
+				+ memoryBudget + " bytes, " + numHits + " hits and " + numMisses + " misses.";
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = { "src/data/iris.arff", "src/data/wine.arff",
+				"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+		DataCache tempCache = new DataCache(1L << 30);
+
+		try {
+			for (int i = 0; i < 3; i++) {
+				long tempStart = System.nanoTime();
+				for (int j = 0; j < tempFilenames.length; j++) {
+					tempCache.get(tempFilenames[j]);
+				} // Of for j
+				System.out.println("Round " + i + ": " + (System.nanoTime() - tempStart) / 1000
+						+ " us. " + tempCache);
+			} // Of for i
+
+			// A small budget keeps only the recently used files.
+			tempCache.setMemoryBudget(tempCache.get(tempFilenames[3]).getNumBytes()
+					+ tempCache.get(tempFilenames[0]).getNumBytes());
+			System.out.println("After shrinking: " + tempCache);
+			System.out.println("iris is still cached: "
+					+ (tempCache.get(tempFilenames[0]) == tempCache.get(tempFilenames[0])));
+		} catch (Exception ee) {
+			System.out.println("Cannot read the files.\r\n" + ee);
+		} // Of try
+	}// Of main
+}// Of class DataCache
@@ -0,0 +1,992 @@
+package algorithm;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+import weka.core.Utils;
+
+/**
+ * A parallel reader of ARFF files. The header is parsed by weka, while the
+ * data section is mapped into memory, split into line-aligned chunks, and
+ * parsed by chunks in parallel into the column store directly, without an
+ * object for each row. Numbers are parsed by hand, and exactly the same as
+ * Double.parseDouble(). Nominal values are encoded as their indices in the
+ * header. Rows may be dense or sparse, i.e., {index value, ...} with omitted
+ * values being 0.<br>
+ * Only numeric and nominal attributes, and rows without weights, are
+ * supported. Otherwise an IllegalArgumentException is thrown, and the file
+ * should be read by weka instead.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class FastArffReader extends Object {
+
+	/**
+	 * The bytes of each chunk at most. A chunk is mapped at once.
+	 */
+	static final long MAX_CHUNK_BYTES = 64L << 20;
+
+	/**
+	 * Data sections smaller than this are parsed in one chunk.
+	 */
+	static final long MIN_PARALLEL_BYTES = 1L << 20;
+
+	/**
+	 * Integers up to it are exact in double.
+	 */
+	static final long MAX_EXACT_INTEGER = 1L << 53;
+
+	/**
+	 * The powers of 10 which are exact in double.
+	 */
+	static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+			1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * The header, i.e., the attributes without instances. The last attribute is
+	 * the class.
+	 */
+	final Instances header;
+
+	/**
+	 * The number of instances.
+	 */
+	final int numInstances;
+
+	/**
+	 * The values of conditional attributes indexed by (attribute, instance).
+	 * Nominal values are their indices, and missing values are NaN.
+	 */
+	final double[][] columns;
+
+	/**
+	 * The class labels, -1 for missing values.
+	 */
+	final int[] labels;
+
+	/**
+	 * The bytes of each nominal value of each attribute, null for numeric
+	 * ones.
+	 */
+	private final byte[][][] nominalValues;
+
+	/**
+	 * The hash code of each nominal value, for quick comparison.
+	 */
+	private final int[][] nominalHashes;
+
+	/**
+	 * The start of each chunk in the file. The last element is the end of the
+	 * file.
+	 */
+	private final long[] chunkStarts;
+
+	/**
+	 * The first row of each chunk.
+	 */
+	private final int[] chunkFirstRows;
+
+	/**
+	 ****************** 
+	 * The first constructor. Read with the common pool.
+	 * 
+	 * @param paraFilename
+	 *            The ARFF file.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 ****************** 
+	 */
+	public FastArffReader(String paraFilename) throws IOException {
+		this(paraFilename, ForkJoinPool.commonPool());
+	}// Of the first constructor
+
+	/**
+	 ****************** 
+	 * The second constructor.
+	 * 
+	 * @param paraFilename
+	 *            The ARFF file.
+	 * @param paraPool
+	 *            The pool to parse chunks.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 * @throws IllegalArgumentException
+	 *             If the file is not supported.
+	 ****************** 
+	 */
+	public FastArffReader(String paraFilename, ForkJoinPool paraPool) throws IOException {
+		RandomAccessFile tempFile = new RandomAccessFile(paraFilename, "r");
+		try {
+			FileChannel tempChannel = tempFile.getChannel();
+			long tempFileSize = tempChannel.size();
+
+			// Step 1. The header.
+			long tempDataStart = findDataSection(tempChannel);
+			if (tempDataStart < 0) {
+				throw new IllegalArgumentException("No @data section: " + paraFilename);
+			} // Of if
+			ByteBuffer tempHeaderBytes = ByteBuffer.allocate((int) tempDataStart);
+			while (tempHeaderBytes.hasRemaining()) {
+				tempChannel.read(tempHeaderBytes, tempHeaderBytes.position());
+			} // Of while
+			header = new Instances(new StringReader(
+					new String(tempHeaderBytes.array(), StandardCharsets.UTF_8)));
+			header.setClassIndex(header.numAttributes() - 1);
+
+			int tempNumAttributes = header.numAttributes();
+			nominalValues = new byte[tempNumAttributes][][];
+			nominalHashes = new int[tempNumAttributes][];
+			for (int i = 0; i < tempNumAttributes; i++) {
+				Attribute tempAttribute = header.attribute(i);
+				if (tempAttribute.isNominal()) {
+					nominalValues[i] = new byte[tempAttribute.numValues()][];
+					nominalHashes[i] = new int[tempAttribute.numValues()];
+					for (int j = 0; j < tempAttribute.numValues(); j++) {
+						nominalValues[i][j] = tempAttribute.value(j)
+								.getBytes(StandardCharsets.UTF_8);
+						nominalHashes[i][j] = hash(nominalValues[i][j], 0,
+								nominalValues[i][j].length);
+					} // Of for j
+				} else if (!tempAttribute.isNumeric()) {
+					throw new IllegalArgumentException(
+							"Unsupported attribute type: " + tempAttribute);
+				} // Of if
+			} // Of for i
+			if (!header.classAttribute().isNominal()) {
+				throw new IllegalArgumentException("The last attribute should be nominal.");
+			} // Of if
+
+			// Step 2. Line-aligned chunks.
+			long tempDataBytes = tempFileSize - tempDataStart;
+			int tempNumChunks = 1;
+			if (tempDataBytes >= MIN_PARALLEL_BYTES) {
+				tempNumChunks = (int) Math.max(paraPool.getParallelism() * 4L,
+						(tempDataBytes + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+			} // Of if
+			long[] tempStarts = new long[tempNumChunks + 1];
+			tempStarts[0] = tempDataStart;
+			for (int i = 1; i < tempNumChunks; i++) {
+				long tempTarget = tempDataStart + tempDataBytes * i / tempNumChunks;
+				tempStarts[i] = findLineStart(tempChannel, Math.max(tempStarts[i - 1], tempTarget));
+			} // Of for i
+			tempStarts[tempNumChunks] = tempFileSize;
+			chunkStarts = tempStarts;
+
+			// Step 3. Count rows of each chunk in parallel.
+			List<Callable<Integer>> tempCountTasks = new ArrayList<Callable<Integer>>();
+			for (int i = 0; i < tempNumChunks; i++) {
+				final MappedByteBuffer tempChunk = tempChannel.map(FileChannel.MapMode.READ_ONLY,
+						chunkStarts[i], chunkStarts[i + 1] - chunkStarts[i]);
+				tempCountTasks.add(() -> countRows(tempChunk));
+			} // Of for i
+			List<Integer> tempCounts = invokeAll(paraPool, tempCountTasks);
+
+			chunkFirstRows = new int[tempNumChunks + 1];
+			long tempNumRows = 0;
+			for (int i = 0; i < tempNumChunks; i++) {
+				chunkFirstRows[i] = (int) tempNumRows;
+				tempNumRows += tempCounts.get(i);
+			} // Of for i
+			if (tempNumRows > Integer.MAX_VALUE - 8) {
+				throw new IllegalArgumentException("Too many instances: " + tempNumRows);
+			} // Of if
+			numInstances = (int) tempNumRows;
+			chunkFirstRows[tempNumChunks] = numInstances;
+
+			// Step 4. Parse each chunk into its rows in parallel.
+			columns = new double[tempNumAttributes - 1][numInstances];
+			labels = new int[numInstances];
+			List<Callable<Integer>> tempParseTasks = new ArrayList<Callable<Integer>>();
+			for (int i = 0; i < tempNumChunks; i++) {
+				final MappedByteBuffer tempChunk = tempChannel.map(FileChannel.MapMode.READ_ONLY,
+						chunkStarts[i], chunkStarts[i + 1] - chunkStarts[i]);
+				final int tempFirstRow = chunkFirstRows[i];
+				tempParseTasks.add(() -> parseRows(tempChunk, tempFirstRow));
+			} // Of for i
+			invokeAll(paraPool, tempParseTasks);
+		} finally {
+			tempFile.close();
+		} // Of try
+	}// Of the second constructor
+
+	/**
+	 ****************** 
+	 * Run tasks in the pool, and rethrow their exceptions.
+	 * 
+	 * @param paraPool
+	 *            The pool.
+	 * @param paraTasks
+	 *            The tasks.
+	 * @return The results of the tasks in the same order.
+	 * @throws IOException
+	 *             If a task is interrupted.
+	 ****************** 
+	 */
+	private static List<Integer> invokeAll(ForkJoinPool paraPool,
+			List<Callable<Integer>> paraTasks) throws IOException {
+		List<Integer> resultList = new ArrayList<Integer>();
+		try {
+			for (Future<Integer> tempFuture : paraPool.invokeAll(paraTasks)) {
+				resultList.add(tempFuture.get());
+			} // Of for tempFuture
+		} catch (ExecutionException ee) {
+			if (ee.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ee.getCause();
+			} // Of if
+			throw new IOException(ee.getCause());
+		} catch (InterruptedException ee) {
+			Thread.currentThread().interrupt();
+			throw new IOException(ee);
+		} // Of try
+
+		return resultList;
+	}// Of invokeAll
+
+	/**
+	 ****************** 
+	 * Find the start of the data section, i.e., the line after @data.
+	 * 
+	 * @param paraChannel
+	 *            The file.
+	 * @return The position, -1 if not found.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 ****************** 
+	 */
+	static long findDataSection(FileChannel paraChannel) throws IOException {
+		ByteBuffer tempBuffer = ByteBuffer.allocate(1 << 16);
+		StringBuilder tempLine = new StringBuilder();
+		long tempPosition = 0;
+		while (true) {
+			tempBuffer.clear();
+			int tempRead = paraChannel.read(tempBuffer, tempPosition);
+			if (tempRead <= 0) {
+				return -1;
+			} // Of if
+
+			for (int i = 0; i < tempRead; i++) {
+				char tempChar = (char) tempBuffer.get(i);
+				if (tempChar != '\n') {
+					tempLine.append(tempChar);
+					continue;
+				} // Of if
+
+				if (tempLine.toString().trim().toLowerCase().startsWith("@data")) {
+					return tempPosition + i + 1;
+				} // Of if
+				tempLine.setLength(0);
+			} // Of for i
+			tempPosition += tempRead;
+		} // Of while
+	}// Of findDataSection
+
+	/**
+	 ****************** 
+	 * Find the start of the first line at or after the position.
+	 * 
+	 * @param paraChannel
+	 *            The file.
+	 * @param paraPosition
+	 *            The position.
+	 * @return The start of the line, or the end of the file.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 ****************** 
+	 */
+	static long findLineStart(FileChannel paraChannel, long paraPosition) throws IOException {
+		if (paraPosition == 0) {
+			return 0;
+		} // Of if
+
+		// Start from the previous byte, in case the position is a line start.
+		ByteBuffer tempBuffer = ByteBuffer.allocate(1 << 12);
+		long tempPosition = paraPosition - 1;
+		while (true) {
+			tempBuffer.clear();
+			int tempRead = paraChannel.read(tempBuffer, tempPosition);
+			if (tempRead <= 0) {
+				return paraChannel.size();
+			} // Of if
+
+			for (int i = 0; i < tempRead; i++) {
+				if (tempBuffer.get(i) == '\n') {
+					return tempPosition + i + 1;
+				} // Of if
+			} // Of for i
+			tempPosition += tempRead;
+		} // Of while
+	}// Of findLineStart
+
+	/**
+	 ****************** 
+	 * Skip spaces and tabs.
+	 * 
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraPosition
+	 *            The position.
+	 * @param paraEnd
+	 *            The end of the line.
+	 * @return The first position which is not a space or a tab.
+	 ****************** 
+	 */
+	private static int skipBlanks(ByteBuffer paraChunk, int paraPosition, int paraEnd) {
+		int resultPosition = paraPosition;
+		while (resultPosition < paraEnd) {
+			byte tempByte = paraChunk.get(resultPosition);
+			if ((tempByte != ' ') && (tempByte != '\t') && (tempByte != '\r')) {
+				break;
+			} // Of if
+			resultPosition++;
+		} // Of while
+
+		return resultPosition;
+	}// Of skipBlanks
+
+	/**
+	 ****************** 
+	 * Find the end of the line.
+	 * 
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraPosition
+	 *            The position in the line.
+	 * @return The position of '\n', or the end of the chunk.
+	 ****************** 
+	 */
+	private static int findLineEnd(ByteBuffer paraChunk, int paraPosition) {
+		int tempLimit = paraChunk.limit();
+		int resultPosition = paraPosition;
+		while ((resultPosition < tempLimit) && (paraChunk.get(resultPosition) != '\n')) {
+			resultPosition++;
+		} // Of while
+
+		return resultPosition;
+	}// Of findLineEnd
+
+	/**
+	 ****************** 
+	 * Is the line a row? Blank lines and comments are not.
+	 * 
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraStart
+	 *            The first non-blank position of the line.
+	 * @param paraEnd
+	 *            The end of the line.
+	 * @return True if it is a row.
+	 ****************** 
+	 */
+	private static boolean isRow(ByteBuffer paraChunk, int paraStart, int paraEnd) {
+		return (paraStart < paraEnd) && (paraChunk.get(paraStart) != '%');
+	}// Of isRow
+
+	/**
+	 ****************** 
+	 * Count rows of a chunk.
+	 * 
+	 * @param paraChunk
+	 *            The chunk.
+	 * @return The number of rows.
+	 ****************** 
+	 */
+	static int countRows(ByteBuffer paraChunk) {
+		int resultCount = 0;
+		int tempLimit = paraChunk.limit();
+		int tempPosition = 0;
+		while (tempPosition < tempLimit) {
+			int tempEnd = findLineEnd(paraChunk, tempPosition);
+			if (isRow(paraChunk, skipBlanks(paraChunk, tempPosition, tempEnd), tempEnd)) {
+				resultCount++;
+			} // Of if
+			tempPosition = tempEnd + 1;
+		} // Of while
+
+		return resultCount;
+	}// Of countRows
+
+	/**
+	 ****************** 
+	 * Parse rows of a chunk into the column store.
+	 * 
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraFirstRow
+	 *            The index of its first row.
+	 * @return The number of rows.
+	 ****************** 
+	 */
+	int parseRows(ByteBuffer paraChunk, int paraFirstRow) {
+		int tempNumAttributes = header.numAttributes();
+		int tempClassIndex = tempNumAttributes - 1;
+		int tempLimit = paraChunk.limit();
+		int tempRow = paraFirstRow;
+		int tempPosition = 0;
+		while (tempPosition < tempLimit) {
+			int tempEnd = findLineEnd(paraChunk, tempPosition);
+			int tempStart = skipBlanks(paraChunk, tempPosition, tempEnd);
+			tempPosition = tempEnd + 1;
+			if (!isRow(paraChunk, tempStart, tempEnd)) {
+				continue;
+			} // Of if
+			if (paraChunk.get(tempStart) == '{') {
+				parseSparseRow(paraChunk, tempStart, tempEnd, tempRow);
+				tempRow++;
+				continue;
+			} // Of if
+
+			// Parse fields one by one.
+			int tempFieldStart = tempStart;
+			for (int i = 0; i < tempNumAttributes; i++) {
+				tempFieldStart = skipBlanks(paraChunk, tempFieldStart, tempEnd);
+				if (tempFieldStart >= tempEnd) {
+					throw new IllegalArgumentException("Too few values in row " + tempRow + ".");
+				} // Of if
+
+				// Find the field, which may be quoted.
+				int tempValueStart = tempFieldStart;
+				int tempValueEnd;
+				int tempNext;
+				byte tempQuote = paraChunk.get(tempFieldStart);
+				if ((tempQuote == '\'') || (tempQuote == '"')) {
+					tempValueStart++;
+					tempValueEnd = tempValueStart;
+					while ((tempValueEnd < tempEnd) && (paraChunk.get(tempValueEnd) != tempQuote)) {
+						if (paraChunk.get(tempValueEnd) == '\\') {
+							throw new IllegalArgumentException(
+									"Escaped values are not supported in row " + tempRow + ".");
+						} // Of if
+						tempValueEnd++;
+					} // Of while
+					tempNext = skipBlanks(paraChunk, tempValueEnd + 1, tempEnd);
+				} else {
+					tempValueEnd = tempFieldStart;
+					while ((tempValueEnd < tempEnd) && (paraChunk.get(tempValueEnd) != ',')) {
+						tempValueEnd++;
+					} // Of while
+					tempNext = tempValueEnd;
+					while ((tempValueEnd > tempValueStart)
+							&& (paraChunk.get(tempValueEnd - 1) <= ' ')) {
+						tempValueEnd--;
+					} // Of while
+				} // Of if
+
+				// The separator.
+				if (i < tempClassIndex) {
+					if ((tempNext >= tempEnd) || (paraChunk.get(tempNext) != ',')) {
+						throw new IllegalArgumentException(
+								"Too few values in row " + tempRow + ".");
+					} // Of if
+					tempFieldStart = tempNext + 1;
+				} else if (skipBlanks(paraChunk, tempNext, tempEnd) < tempEnd) {
+					throw new IllegalArgumentException(
+							"Too many values or a weight in row " + tempRow + ".");
+				} // Of if
+
+				// The value.
+				double tempValue = parseValue(i, paraChunk, tempValueStart, tempValueEnd,
+						(tempQuote == '\'') || (tempQuote == '"'), tempRow);
+				if (i < tempClassIndex) {
+					columns[i][tempRow] = tempValue;
+				} else {
+					labels[tempRow] = Double.isNaN(tempValue) ? -1 : (int) tempValue;
+				} // Of if
+			} // Of for i
+			tempRow++;
+		} // Of while
+
+		return tempRow - paraFirstRow;
+	}// Of parseRows
+
+	/**
+	 ****************** 
+	 * Parse a sparse row, i.e., {index value, ...}, into the column store.
+	 * Omitted values are 0, which the arrays are initialized with.
+	 * 
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraStart
+	 *            The position of '{'.
+	 * @param paraEnd
+	 *            The end of the line.
+	 * @param paraRow
+	 *            The index of the row.
+	 ****************** 
+	 */
+	private void parseSparseRow(ByteBuffer paraChunk, int paraStart, int paraEnd, int paraRow) {
+		int tempClassIndex = header.numAttributes() - 1;
+		int tempPosition = paraStart + 1;
+		while (true) {
+			tempPosition = skipBlanks(paraChunk, tempPosition, paraEnd);
+			if (tempPosition >= paraEnd) {
+				throw new IllegalArgumentException("Unclosed sparse row " + paraRow + ".");
+			} // Of if
+			if (paraChunk.get(tempPosition) == '}') {
+				break;
+			} // Of if
+
+			// Step 1. The index.
+			int tempIndex = 0;
+			int tempIndexStart = tempPosition;
+			while ((tempPosition < paraEnd) && (paraChunk.get(tempPosition) >= '0')
+					&& (paraChunk.get(tempPosition) <= '9') && (tempIndex <= tempClassIndex)) {
+				tempIndex = tempIndex * 10 + paraChunk.get(tempPosition) - '0';
+				tempPosition++;
+			} // Of while
+			if ((tempPosition == tempIndexStart) || (tempIndex > tempClassIndex)) {
+				throw new IllegalArgumentException("Invalid index in sparse row " + paraRow + ".");
+			} // Of if
+
+			// Step 2. The value, which may be quoted.
+			tempPosition = skipBlanks(paraChunk, tempPosition, paraEnd);
+			int tempValueStart = tempPosition;
+			int tempValueEnd;
+			byte tempQuote = tempPosition < paraEnd ? paraChunk.get(tempPosition) : 0;
+			boolean tempQuoted = (tempQuote == '\'') || (tempQuote == '"');
+			if (tempQuoted) {
+				tempValueStart++;
+				tempValueEnd = tempValueStart;
+				while ((tempValueEnd < paraEnd) && (paraChunk.get(tempValueEnd) != tempQuote)) {
+					if (paraChunk.get(tempValueEnd) == '\\') {
+						throw new IllegalArgumentException(
+								"Escaped values are not supported in row " + paraRow + ".");
+					} // Of if
+					tempValueEnd++;
+				} // Of while
+				tempPosition = skipBlanks(paraChunk, tempValueEnd + 1, paraEnd);
+			} else {
+				tempValueEnd = tempValueStart;
+				while ((tempValueEnd < paraEnd) && (paraChunk.get(tempValueEnd) != ',')
+						&& (paraChunk.get(tempValueEnd) != '}')) {
+					tempValueEnd++;
+				} // Of while
+				tempPosition = tempValueEnd;
+				while ((tempValueEnd > tempValueStart)
+						&& (paraChunk.get(tempValueEnd - 1) <= ' ')) {
+					tempValueEnd--;
+				} // Of while
+			} // Of if
+			if ((tempValueEnd == tempValueStart) && (!tempQuoted)) {
+				throw new IllegalArgumentException("No value in sparse row " + paraRow + ".");
+			} // Of if
+
+			double tempValue = parseValue(tempIndex, paraChunk, tempValueStart, tempValueEnd,
+					tempQuoted, paraRow);
+			if (tempIndex < tempClassIndex) {
+				columns[tempIndex][paraRow] = tempValue;
+			} else {
+				labels[paraRow] = Double.isNaN(tempValue) ? -1 : (int) tempValue;
+			} // Of if
+
+			// Step 3. The separator.
+			if ((tempPosition < paraEnd) && (paraChunk.get(tempPosition) == ',')) {
+				tempPosition++;
+			} else if ((tempPosition >= paraEnd) || (paraChunk.get(tempPosition) != '}')) {
+				throw new IllegalArgumentException("Unclosed sparse row " + paraRow + ".");
+			} // Of if
+		} // Of while
+
+		if (skipBlanks(paraChunk, tempPosition + 1, paraEnd) < paraEnd) {
+			throw new IllegalArgumentException("A weight in row " + paraRow + ".");
+		} // Of if
+	}// Of parseSparseRow
+
+	/**
+	 ****************** 
+	 * Parse a value of an attribute.
+	 * 
+	 * @param paraAttribute
+	 *            The attribute.
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraStart
+	 *            The start of the value.
+	 * @param paraEnd
+	 *            The end of the value, exclusive.
+	 * @param paraQuoted
+	 *            Is the value quoted? A quoted '?' is not missing.
+	 * @param paraRow
+	 *            The index of the row, for error messages.
+	 * @return The value, or the index of a nominal value.
+	 ****************** 
+	 */
+	private double parseValue(int paraAttribute, ByteBuffer paraChunk, int paraStart,
+			int paraEnd, boolean paraQuoted, int paraRow) {
+		if ((paraEnd - paraStart == 1) && (!paraQuoted) && (paraChunk.get(paraStart) == '?')) {
+			return Utils.missingValue();
+		} // Of if
+
+		if (nominalValues[paraAttribute] == null) {
+			return parseDouble(paraChunk, paraStart, paraEnd);
+		} // Of if
+
+		int resultIndex = findNominalValue(paraAttribute, paraChunk, paraStart, paraEnd);
+		if (resultIndex < 0) {
+			throw new IllegalArgumentException("Unknown nominal value of attribute "
+					+ header.attribute(paraAttribute).name() + " in row " + paraRow + ".");
+		} // Of if
+
+		return resultIndex;
+	}// Of parseValue
+
+	/**
+	 ****************** 
+	 * The hash code of some bytes.
+	 * 
+	 * @param paraBytes
+	 *            The bytes.
+	 * @param paraStart
+	 *            The start.
+	 * @param paraEnd
+	 *            The end, exclusive.
+	 * @return The hash code.
+	 ****************** 
+	 */
+	static int hash(byte[] paraBytes, int paraStart, int paraEnd) {
+		int resultHash = 0;
+		for (int i = paraStart; i < paraEnd; i++) {
+			resultHash = resultHash * 31 + paraBytes[i];
+		} // Of for i
+
+		return resultHash;
+	}// Of hash
+
+	/**
+	 ****************** 
+	 * Find the index of a nominal value.
+	 * 
+	 * @param paraAttribute
+	 *            The nominal attribute.
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraStart
+	 *            The start of the value.
+	 * @param paraEnd
+	 *            The end of the value, exclusive.
+	 * @return The index, -1 if not found.
+	 ****************** 
+	 */
+	private int findNominalValue(int paraAttribute, ByteBuffer paraChunk, int paraStart,
+			int paraEnd) {
+		int tempHash = 0;
+		for (int i = paraStart; i < paraEnd; i++) {
+			tempHash = tempHash * 31 + paraChunk.get(i);
+		} // Of for i
+
+		byte[][] tempValues = nominalValues[paraAttribute];
+		int[] tempHashes = nominalHashes[paraAttribute];
+		for (int i = 0; i < tempValues.length; i++) {
+			if ((tempHashes[i] != tempHash) || (tempValues[i].length != paraEnd - paraStart)) {
+				continue;
+			} // Of if
+
+			boolean tempEqual = true;
+			for (int j = 0; j < tempValues[i].length; j++) {
+				if (tempValues[i][j] != paraChunk.get(paraStart + j)) {
+					tempEqual = false;
+					break;
+				} // Of if
+			} // Of for j
+			if (tempEqual) {
+				return i;
+			} // Of if
+		} // Of for i
+
+		return -1;
+	}// Of findNominalValue
+
+	/**
+	 ****************** 
+	 * Parse a decimal number. If the significant digits, at most 18 of them,
+	 * form an integer no more than 2^53, and the power of ten is within 22,
+	 * i.e., most numbers in data files, both are exact in double and the value
+	 * is computed with one correctly rounded operation. Others are parsed by
+	 * Double.parseDouble(), so the result is always the same.
+	 * 
+	 * @param paraChunk
+	 *            The chunk.
+	 * @param paraStart
+	 *            The start of the number.
+	 * @param paraEnd
+	 *            The end of the number, exclusive.
+	 * @return The value.
+	 ****************** 
+	 */
+	static double parseDouble(ByteBuffer paraChunk, int paraStart, int paraEnd) {
+		int tempPosition = paraStart;
+		boolean tempNegative = false;
+		if ((tempPosition < paraEnd)
+				&& ((paraChunk.get(tempPosition) == '-') || (paraChunk.get(tempPosition) == '+'))) {
+			tempNegative = paraChunk.get(tempPosition) == '-';
+			tempPosition++;
+		} // Of if
+
+		// Step 1. Digits, with the position of the point.
+		long tempMantissa = 0;
+		int tempNumDigits = 0;
+		int tempExponent = 0;
+		boolean tempHasDigit = false;
+		boolean tempAfterPoint = false;
+		boolean tempFast = true;
+		while (tempPosition < paraEnd) {
+			byte tempByte = paraChunk.get(tempPosition);
+			if ((tempByte >= '0') && (tempByte <= '9')) {
+				tempHasDigit = true;
+				if ((tempMantissa == 0) && (tempByte == '0')) {
+					// Leading zeros are not significant.
+				} else if (tempNumDigits < 18) {
+					tempMantissa = tempMantissa * 10 + (tempByte - '0');
+					tempNumDigits++;
+				} else {
+					tempFast = false;
+				} // Of if
+				if (tempAfterPoint) {
+					tempExponent--;
+				} // Of if
+			} else if ((tempByte == '.') && !tempAfterPoint) {
+				tempAfterPoint = true;
+			} else {
+				break;
+			} // Of if
+			tempPosition++;
+		} // Of while
+
+		// Step 2. The exponent.
+		if (tempHasDigit && (tempPosition < paraEnd)
+				&& ((paraChunk.get(tempPosition) == 'e') || (paraChunk.get(tempPosition) == 'E'))) {
+			tempPosition++;
+			boolean tempNegativeExponent = false;
+			if ((tempPosition < paraEnd) && ((paraChunk.get(tempPosition) == '-')
+					|| (paraChunk.get(tempPosition) == '+'))) {
+				tempNegativeExponent = paraChunk.get(tempPosition) == '-';
+				tempPosition++;
+			} // Of if
+			int tempExplicitExponent = 0;
+			boolean tempHasExponentDigit = false;
+			while ((tempPosition < paraEnd) && (paraChunk.get(tempPosition) >= '0')
+					&& (paraChunk.get(tempPosition) <= '9')) {
+				tempHasExponentDigit = true;
+				if (tempExplicitExponent < 10000) {
+					tempExplicitExponent = tempExplicitExponent * 10
+							+ (paraChunk.get(tempPosition) - '0');
+				} // Of if
+				tempPosition++;
+			} // Of while
+			if (!tempHasExponentDigit) {
+				tempFast = false;
+			} // Of if
+			tempExponent += tempNegativeExponent ? -tempExplicitExponent : tempExplicitExponent;
+		} // Of if
+
+		// Step 3. One exact operation, or the slow but general way.
+		if (tempFast && tempHasDigit && (tempPosition == paraEnd)
+				&& (tempMantissa <= MAX_EXACT_INTEGER) && (tempExponent >= -22)
+				&& (tempExponent <= 22)) {
+			double resultValue = tempMantissa;
+			if (tempExponent < 0) {
+				resultValue /= POWERS_OF_TEN[-tempExponent];
+			} else {
+				resultValue *= POWERS_OF_TEN[tempExponent];
+			} // Of if
+			return tempNegative ? -resultValue : resultValue;
+		} // Of if
+
+		byte[] tempBytes = new byte[paraEnd - paraStart];
+		for (int i = 0; i < tempBytes.length; i++) {
+			tempBytes[i] = paraChunk.get(paraStart + i);
+		} // Of for i
+		try {
+			return Double.parseDouble(new String(tempBytes, StandardCharsets.US_ASCII));
+		} catch (NumberFormatException ee) {
+			throw new IllegalArgumentException("Not a number: " + ee.getMessage());
+		} // Of try
+	}// Of parseDouble
+
+	/**
+	 ****************** 
+	 * The data as instances, for code working on Instances. If most values are
+	 * 0, e.g., one-hot attributes, sparse instances keeping only non-zero
+	 * values are built instead of dense ones.
+	 * 
+	 * @return The instances with the last attribute as the class.
+	 ****************** 
+	 */
+	public Instances toInstances() {
+		Instances resultInstances = new Instances(header, numInstances);
+		int tempNumAttributes = header.numAttributes();
+		boolean tempSparse = getDensity() <= WeightedInstances.MAX_SPARSE_DENSITY;
+		for (int i = 0; i < numInstances; i++) {
+			double[] tempValues = new double[tempNumAttributes];
+			for (int j = 0; j < columns.length; j++) {
+				tempValues[j] = columns[j][i];
+			} // Of for j
+			tempValues[tempNumAttributes - 1] = labels[i] < 0 ? Utils.missingValue() : labels[i];
+			Instance tempInstance = new DenseInstance(1.0, tempValues);
+			if (tempSparse) {
+				tempInstance = new SparseInstance(tempInstance);
+			} // Of if
+			resultInstances.add(tempInstance);
+		} // Of for i
+		resultInstances.setClassIndex(tempNumAttributes - 1);
+
+		return resultInstances;
+	}// Of toInstances
+
+	/**
+	 ****************** 
+	 * Compute the fraction of non-zero values of conditional attributes.
+	 * Missing values are non-zero.
+	 * 
+	 * @return The density.
+	 ****************** 
+	 */
+	public double getDensity() {
+		long tempNumNonZeros = 0;
+		for (int i = 0; i < columns.length; i++) {
+			double[] tempColumn = columns[i];
+			for (int j = 0; j < numInstances; j++) {
+				if (tempColumn[j] != 0) {
+					tempNumNonZeros++;
+				} // Of if
+			} // Of for j
+		} // Of for i
+
+		return tempNumNonZeros / Math.max(1.0, (double) numInstances * columns.length);
+	}// Of getDensity
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The header without instances.
+	 ****************** 
+	 */
+	public Instances getHeader() {
+		return header;
+	}// Of getHeader
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of instances.
+	 ****************** 
+	 */
+	public int getNumInstances() {
+		return numInstances;
+	}// Of getNumInstances
+
+	/**
+	 ****************** 
+	 * Getter. The arrays should not be changed by the caller.
+	 * 
+	 * @return The values of conditional attributes indexed by (attribute,
+	 *         instance).
+	 ****************** 
+	 */
+	public double[][] getColumns() {
+		return columns;
+	}// Of getColumns
+
+	/**
+	 ****************** 
+	 * Getter. The array should not be changed by the caller.
+	 * 
+	 * @return The class labels, -1 for missing values.
+	 ****************** 
+	 */
+	public int[] getLabels() {
+		return labels;
+	}// Of getLabels
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "I have read " + header.relationName() + " with " + numInstances
+				+ " instances and " + columns.length + " conditional attributes in "
+				+ (chunkStarts.length - 1) + " chunks.";
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test. The values should be the same as those parsed by weka.
+	 * 
+	 * @param args
+	 *            ARFF files to read. The bundled data sets if not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = args;
+		if (tempFilenames.length == 0) {
+			tempFilenames = new String[] { "src/data/iris.arff", "src/data/wine.arff",
+					"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+		} // Of if
+
+		for (int i = 0; i < tempFilenames.length; i++) {
+			try {
+				long tempStart = System.nanoTime();
+				FileReader tempFileReader = new FileReader(tempFilenames[i]);
+				Instances tempParsed = new Instances(tempFileReader);
+				tempFileReader.close();
+				long tempWekaTime = System.nanoTime() - tempStart;
+
+				tempStart = System.nanoTime();
+				FastArffReader tempReader = new FastArffReader(tempFilenames[i]);
+				long tempFastTime = System.nanoTime() - tempStart;
+
+				int tempDifferent = 0;
+				int tempClassIndex = tempParsed.numAttributes() - 1;
+				for (int j = 0; j < tempParsed.numInstances(); j++) {
+					double[] tempValues = tempParsed.instance(j).toDoubleArray();
+					for (int k = 0; k < tempClassIndex; k++) {
+						if (Double.doubleToLongBits(tempValues[k]) != Double
+								.doubleToLongBits(tempReader.columns[k][j])) {
+							tempDifferent++;
+						} // Of if
+					} // Of for k
+					if ((int) tempValues[tempClassIndex] != tempReader.labels[j]) {
+						tempDifferent++;
+					} // Of if
+				} // Of for j
+				if (tempParsed.numInstances() != tempReader.numInstances) {
+					tempDifferent++;
+				} // Of if
+
+				long tempFileSize = new File(tempFilenames[i]).length();
+				System.out.println(tempReader + " " + tempDifferent + " different values. Weka: "
+						+ tempWekaTime / 1000000 + " ms, fast: " + tempFastTime / 1000000
+						+ " ms, " + (tempFileSize * 1000 / Math.max(tempFastTime, 1)) + " MB/s.");
+			} catch (Exception ee) {
+				System.out.println("Cannot read the file: " + tempFilenames[i] + "\r\n" + ee);
+			} // Of try
+		} // Of for i
+	}// Of main
+}// Of class FastArffReader
@@ -1,6 +1,5 @@
 package algorithm;
 
-import weka.core.Instance;
 import java.io.FileReader;
 import java.util.*;
 
@@ -65,20 +64,20 @@ public class GaussianClassifier extends SimpleClassifier {
 
 	/**
 	 ****************** 
-	 * Classify an instance.
+	 * Classify an instance according to its value on the selected attribute.
 	 * 
-	 * @param paraInstance
-	 *            The given instance.
+	 * @param paraValue
+	 *            The value of the instance on the selected attribute.
 	 * @return Predicted label.
 	 ****************** 
 	 */
-	public int classify(Instance paraInstance) {
+	public int classify(double paraValue) {
 		// Find the biggest one
 		double tempBiggest = -10000;
 		int resultBestIndex = 0;
 		//double tempSqrt2Pi = Math.log(2 * Math.PI) / 2;
 		for (int i = 0; i < numClasses; i++) {
-			double tempAttributeValue = paraInstance.value(selectedAttribute);
+			double tempAttributeValue = paraValue;
 			double tempSigma = gaussianParameters[i].sigma;
 			double tempMu = gaussianParameters[i].mu;
 
@@ -106,9 +105,10 @@ public class GaussianClassifier extends SimpleClassifier {
 		classDistributionLaplacian = new double[numClasses];
 
 		double[] tempCounts = new double[numClasses];
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
 		for (int i = 0; i < numInstances; i++) {
-			int tempClassValue = (int) weightedInstances.instance(i).classValue();
-			tempCounts[tempClassValue] += weightedInstances.getWeight(i) * numInstances;
+			tempCounts[tempLabels[i]] += tempWeights[i] * numInstances;
 		} // Of for i
 
 		for (int i = 0; i < numClasses; i++) {
@@ -137,13 +137,16 @@ public class GaussianClassifier extends SimpleClassifier {
 		double[] tempValueSumArray = new double[numClasses];
 		double[] tempWeightSumArray = new double[numClasses];
 		
+		double[] tempColumn = weightedInstances.getColumn(selectedAttribute);
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
+
 		//Step 1. Calculate mean attribute value for each class.
 		for (int i = 0; i < numInstances; i++) {
-			int tempClass = (int) weightedInstances.instance(i).classValue();
+			int tempClass = tempLabels[i];
 			
-			tempValueSumArray[tempClass] += weightedInstances.instance(i)
-					.value(selectedAttribute) * weightedInstances.getWeight(i);
-			tempWeightSumArray[tempClass] += weightedInstances.getWeight(i);
+			tempValueSumArray[tempClass] += tempColumn[i] * tempWeights[i];
+			tempWeightSumArray[tempClass] += tempWeights[i];
 		}//Of for i
 		
 		for (int i = 0; i < numClasses; i++) {
@@ -152,10 +155,9 @@ public class GaussianClassifier extends SimpleClassifier {
 		
 		//Step 2. Calculate sigma for each class.
 		for (int i = 0; i < numInstances; i++) {
-			int tempClass = (int) weightedInstances.instance(i).classValue();
+			int tempClass = tempLabels[i];
 			
-			double tempDifference = weightedInstances.instance(i)
-					.value(selectedAttribute) - tempMuArray[tempClass];
+			double tempDifference = tempColumn[i] - tempMuArray[tempClass];
 			tempSigmaSumArray[tempClass] += tempDifference * tempDifference;
 		}//Of for i
 		
@@ -169,6 +171,32 @@ public class GaussianClassifier extends SimpleClassifier {
 		//Arrays.deepToString(gaussianParameters));
 	}// Of calculateGaussianParameters
 
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @param paraClass
+	 *            The given class.
+	 * @return The mean of the selected attribute for the class.
+	 ****************** 
+	 */
+	double getMu(int paraClass) {
+		return gaussianParameters[paraClass].mu;
+	}// Of getMu
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @param paraClass
+	 *            The given class.
+	 * @return The standard deviation of the selected attribute for the class.
+	 ****************** 
+	 */
+	double getSigma(int paraClass) {
+		return gaussianParameters[paraClass].sigma;
+	}// Of getSigma
+
 	/**
 	 ****************** 
 	 * For display.
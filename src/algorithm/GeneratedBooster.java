@@ -0,0 +1,446 @@
+package algorithm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import weka.core.Instances;
+
+/**
+ * A compiled booster turned into straight-line code. Each stump becomes a
+ * compare-and-add against constant thresholds, and each Gaussian classifier
+ * becomes an inlined quadratic for each class, so that the JIT may optimize the
+ * fixed model as a whole. The code is generated as Java source and compiled in
+ * memory with the system compiler. If no compiler is available, e.g., on a
+ * JRE, or the compilation fails, the interpreted compiled booster is used
+ * instead. The votes are added in the same order with the same arithmetic, so
+ * the result is the same as Booster.classify().<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class GeneratedBooster extends Object {
+
+	/**
+	 * The estimated most bytes of each generated method. The JIT does not
+	 * compile methods larger than 8000 bytes.
+	 */
+	static final int MAX_METHOD_BYTES = 3000;
+
+	/**
+	 * The estimated bytes of a stump.
+	 */
+	static final int STUMP_BYTES = 25;
+
+	/**
+	 * The estimated bytes of a Gaussian classifier, besides those of each
+	 * class.
+	 */
+	static final int GAUSSIAN_BYTES = 15;
+
+	/**
+	 * The estimated bytes of each class in a Gaussian classifier.
+	 */
+	static final int GAUSSIAN_CLASS_BYTES = 45;
+
+	/**
+	 * For distinct names of generated classes.
+	 */
+	static final AtomicInteger classCounter = new AtomicInteger();
+
+	/**
+	 * The compiled booster.
+	 */
+	final CompiledBooster compiledBooster;
+
+	/**
+	 * The generated code computing votes, null if not generated.
+	 */
+	final BiConsumer<double[], double[]> generatedVotes;
+
+	/**
+	 * The reason why the code is not generated, null if it is generated.
+	 */
+	final String failureReason;
+
+	/**
+	 * The buffer of votes for each thread.
+	 */
+	private final ThreadLocal<double[]> voteBuffers;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraCompiledBooster
+	 *            The compiled booster, possibly pruned.
+	 ****************** 
+	 */
+	GeneratedBooster(CompiledBooster paraCompiledBooster) {
+		compiledBooster = paraCompiledBooster;
+
+		BiConsumer<double[], double[]> tempGeneratedVotes = null;
+		String tempFailureReason = null;
+		try {
+			String tempClassName = "GeneratedVotes" + classCounter.incrementAndGet();
+			tempGeneratedVotes = compileSource(tempClassName,
+					generateSource(tempClassName, paraCompiledBooster));
+		} catch (Exception ee) {
+			tempFailureReason = ee.toString();
+		} // Of try
+		generatedVotes = tempGeneratedVotes;
+		failureReason = tempFailureReason;
+
+		voteBuffers = ThreadLocal.withInitial(() -> new double[compiledBooster.numClasses]);
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Generate the source of a class computing votes.
+	 * 
+	 * @param paraClassName
+	 *            The name of the class, in the default package.
+	 * @param paraCompiledBooster
+	 *            The compiled booster.
+	 * @return The source.
+	 ****************** 
+	 */
+	static String generateSource(String paraClassName, CompiledBooster paraCompiledBooster) {
+		CompiledBooster tempBooster = paraCompiledBooster;
+		int tempNumClasses = tempBooster.numClasses;
+		StringBuilder resultBuilder = new StringBuilder();
+		resultBuilder.append("public final class ").append(paraClassName)
+				.append(" implements java.util.function.BiConsumer<double[], double[]> {\n");
+
+		// Step 1. Split base classifiers into methods small enough for the JIT.
+		int[] tempMethodStarts = new int[tempBooster.numClassifiers + 1];
+		int tempNumMethods = 0;
+		int tempMethodBytes = MAX_METHOD_BYTES;
+		for (int i = 0; i < tempBooster.numClassifiers; i++) {
+			int tempBytes = STUMP_BYTES;
+			if (tempBooster.types[i] != CompiledBooster.STUMP) {
+				tempBytes = GAUSSIAN_BYTES + GAUSSIAN_CLASS_BYTES * tempNumClasses;
+			} // Of if
+			if (tempMethodBytes + tempBytes > MAX_METHOD_BYTES) {
+				tempMethodStarts[tempNumMethods++] = i;
+				tempMethodBytes = 0;
+			} // Of if
+			tempMethodBytes += tempBytes;
+		} // Of for i
+		tempMethodStarts[tempNumMethods] = tempBooster.numClassifiers;
+
+		// Step 2. The entrance.
+		resultBuilder.append("public void accept(double[] x, double[] v) {\n");
+		for (int i = 0; i < tempNumClasses; i++) {
+			resultBuilder.append("v[").append(i).append("] = ")
+					.append(toLiteral(tempBooster.constantVotes[i])).append(";\n");
+		} // Of for i
+		for (int i = 0; i < tempNumMethods; i++) {
+			resultBuilder.append("part").append(i).append("(x, v);\n");
+		} // Of for i
+		resultBuilder.append("}\n");
+
+		// Step 3. Base classifiers in the original order.
+		for (int i = 0; i < tempNumMethods; i++) {
+			resultBuilder.append("private static void part").append(i)
+					.append("(double[] x, double[] v) {\n");
+			resultBuilder.append("double d, s, b;\nint l;\n");
+			for (int j = tempMethodStarts[i]; j < tempMethodStarts[i + 1]; j++) {
+				String tempValue = "x[" + tempBooster.attributes[j] + "]";
+				String tempAlpha = toLiteral(tempBooster.alphas[j]);
+				if (tempBooster.types[j] == CompiledBooster.STUMP) {
+					resultBuilder.append("v[").append(tempValue).append(" < ")
+							.append(toLiteral(tempBooster.cuts[j])).append(" ? ")
+							.append(tempBooster.leafLabels[j * 2]).append(" : ")
+							.append(tempBooster.leafLabels[j * 2 + 1]).append("] += ")
+							.append(tempAlpha).append(";\n");
+					continue;
+				} // Of if
+
+				// The same arithmetic as CompiledBooster.classifyGaussian().
+				resultBuilder.append("b = ")
+						.append(toLiteral(CompiledBooster.MIN_PSEUDO_PROBABILITY))
+						.append(";\nl = 0;\n");
+				int tempIndex = tempBooster.coefficientStarts[j];
+				for (int k = 0; k < tempNumClasses; k++) {
+					double[] tempCoefficients = tempBooster.coefficients;
+					resultBuilder.append("d = ").append(tempValue).append(" - ")
+							.append(toLiteral(tempCoefficients[tempIndex])).append(";\n");
+					resultBuilder.append("s = ").append(toLiteral(tempCoefficients[tempIndex + 2]))
+							.append(" + (").append(toLiteral(tempCoefficients[tempIndex + 3]))
+							.append(" - d * d / ").append(toLiteral(tempCoefficients[tempIndex + 1]))
+							.append(");\n");
+					resultBuilder.append("if (b < s) { b = s; l = ").append(k).append("; }\n");
+					tempIndex += CompiledBooster.COEFFICIENTS_PER_CLASS;
+				} // Of for k
+				resultBuilder.append("v[l] += ").append(tempAlpha).append(";\n");
+			} // Of for j
+			resultBuilder.append("}\n");
+		} // Of for i
+
+		resultBuilder.append("}\n");
+		return resultBuilder.toString();
+	}// Of generateSource
+
+	/**
+	 ****************** 
+	 * The exact Java literal of a double value.
+	 * 
+	 * @param paraValue
+	 *            The value.
+	 * @return The literal in parentheses.
+	 ****************** 
+	 */
+	static String toLiteral(double paraValue) {
+		if (Double.isNaN(paraValue)) {
+			return "(Double.NaN)";
+		} else if (paraValue == Double.POSITIVE_INFINITY) {
+			return "(Double.POSITIVE_INFINITY)";
+		} else if (paraValue == Double.NEGATIVE_INFINITY) {
+			return "(Double.NEGATIVE_INFINITY)";
+		} // Of if
+
+		return "(" + Double.toHexString(paraValue) + ")";
+	}// Of toLiteral
+
+	/**
+	 ****************** 
+	 * Compile the source in memory and create an object of the class.
+	 * 
+	 * @param paraClassName
+	 *            The name of the class.
+	 * @param paraSource
+	 *            The source.
+	 * @return The object computing votes.
+	 * @throws Exception
+	 *             If there is no compiler, or the compilation fails.
+	 ****************** 
+	 */
+	@SuppressWarnings("unchecked")
+	static BiConsumer<double[], double[]> compileSource(String paraClassName,
+			String paraSource) throws Exception {
+		JavaCompiler tempCompiler = ToolProvider.getSystemJavaCompiler();
+		if (tempCompiler == null) {
+			throw new IllegalStateException("No Java compiler is available.");
+		} // Of if
+
+		// Step 1. The source and the class are kept in memory.
+		JavaFileObject tempSourceFile = new SimpleJavaFileObject(
+				URI.create("string:///" + paraClassName + ".java"), JavaFileObject.Kind.SOURCE) {
+			public CharSequence getCharContent(boolean paraIgnoreEncodingErrors) {
+				return paraSource;
+			}// Of getCharContent
+		};
+
+		final HashMap<String, ByteArrayOutputStream> tempClassBytes = new HashMap<String, ByteArrayOutputStream>();
+		JavaFileManager tempFileManager = new ForwardingJavaFileManager<JavaFileManager>(
+				tempCompiler.getStandardFileManager(null, null, null)) {
+			public JavaFileObject getJavaFileForOutput(Location paraLocation, String paraName,
+					JavaFileObject.Kind paraKind, FileObject paraSibling) {
+				return new SimpleJavaFileObject(URI.create("bytes:///" + paraName + ".class"),
+						paraKind) {
+					public OutputStream openOutputStream() {
+						ByteArrayOutputStream tempStream = new ByteArrayOutputStream();
+						tempClassBytes.put(paraName, tempStream);
+						return tempStream;
+					}// Of openOutputStream
+				};
+			}// Of getJavaFileForOutput
+		};
+
+		// Step 2. Compile.
+		boolean tempSuccess = tempCompiler.getTask(null, tempFileManager, null,
+				Arrays.asList("-g:none"), null, Arrays.asList(tempSourceFile)).call();
+		tempFileManager.close();
+		if (!tempSuccess || !tempClassBytes.containsKey(paraClassName)) {
+			throw new IllegalStateException("Cannot compile the generated source.");
+		} // Of if
+
+		// Step 3. Load with a new class loader, so that the class is unloaded
+		// with the model.
+		final byte[] tempBytes = tempClassBytes.get(paraClassName).toByteArray();
+		ClassLoader tempLoader = new ClassLoader(GeneratedBooster.class.getClassLoader()) {
+			protected Class<?> findClass(String paraName) throws ClassNotFoundException {
+				if (!paraName.equals(paraClassName)) {
+					throw new ClassNotFoundException(paraName);
+				} // Of if
+				return defineClass(paraName, tempBytes, 0, tempBytes.length);
+			}// Of findClass
+		};
+
+		return (BiConsumer<double[], double[]>) tempLoader.loadClass(paraClassName)
+				.getDeclaredConstructor().newInstance();
+	}// Of compileSource
+
+	/**
+	 ****************** 
+	 * Is the code generated?
+	 * 
+	 * @return False if the interpreted compiled booster is used.
+	 ****************** 
+	 */
+	public boolean isGenerated() {
+		return generatedVotes != null;
+	}// Of isGenerated
+
+	/**
+	 ****************** 
+	 * Compute the weighted votes of each class for a row.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 ****************** 
+	 */
+	public void computeVotes(double[] paraRow, double[] paraVotes) {
+		if (generatedVotes == null) {
+			compiledBooster.computeVotes(paraRow, paraVotes);
+		} else {
+			generatedVotes.accept(paraRow, paraVotes);
+		} // Of if
+	}// Of computeVotes
+
+	/**
+	 ****************** 
+	 * Classify a row with a vote buffer of the current thread.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow) {
+		return classify(paraRow, voteBuffers.get());
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify a row.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 * @return The predicted label, the same as Booster.classify().
+	 ****************** 
+	 */
+	public int classify(double[] paraRow, double[] paraVotes) {
+		computeVotes(paraRow, paraVotes);
+		if (compiledBooster.originalBooster != null && compiledBooster.isClose(paraVotes)) {
+			// Merged weights may change the result, vote in the original order.
+			return compiledBooster.originalBooster.classify(paraRow, paraVotes);
+		} // Of if
+
+		return compiledBooster.getBestLabel(paraVotes);
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		if (generatedVotes == null) {
+			return "I use the interpreted compiled booster, since " + failureReason;
+		} // Of if
+		return "I am a generated booster with " + compiledBooster.numClassifiers
+				+ " base classifiers.";
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test and benchmark. The generated booster should classify each
+	 * instance the same as the booster, and faster than the compiled one.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = { "src/data/iris.arff", "src/data/wine.arff",
+				"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+		int[] tempTypes = { Booster.STUMP_CLASSIFIER, Booster.Gaussian_CLASSIFIER };
+
+		for (int i = 0; i < tempFilenames.length; i++) {
+			Instances tempData = null;
+			try {
+				FileReader tempFileReader = new FileReader(tempFilenames[i]);
+				tempData = new Instances(tempFileReader);
+				tempFileReader.close();
+			} catch (Exception ee) {
+				System.out.println("Cannot read the file: " + tempFilenames[i] + "\r\n" + ee);
+				System.exit(0);
+			} // Of try
+
+			double[][] tempRows = new double[tempData.numInstances()][];
+			for (int j = 0; j < tempRows.length; j++) {
+				tempRows[j] = tempData.instance(j).toDoubleArray();
+			} // Of for j
+
+			for (int j = 0; j < tempTypes.length; j++) {
+				Booster tempBooster = new Booster(tempData);
+				tempBooster.setBaseClassifierType(tempTypes[j]);
+				tempBooster.setNumBaseClassifiers(500);
+				tempBooster.train();
+				CompiledBooster tempCompiled = tempBooster.compile().prune();
+				GeneratedBooster tempGenerated = tempBooster.generate();
+
+				// Step 1. The same predictions.
+				int tempDifferent = 0;
+				for (int k = 0; k < tempRows.length; k++) {
+					if (tempBooster.classify(tempData.instance(k)) != tempGenerated
+							.classify(tempRows[k])) {
+						tempDifferent++;
+					} // Of if
+				} // Of for k
+
+				// Step 2. Compare the time after enough rows for the JIT.
+				long tempCompiledTime = Long.MAX_VALUE;
+				long tempGeneratedTime = Long.MAX_VALUE;
+				int tempChecksum = 0;
+				int tempRounds = Math.max(50, 400000 / tempRows.length);
+				for (int r = 0; r < tempRounds; r++) {
+					long tempStart = System.nanoTime();
+					for (int k = 0; k < tempRows.length; k++) {
+						tempChecksum += tempCompiled.classify(tempRows[k]);
+					} // Of for k
+					long tempMiddle = System.nanoTime();
+					for (int k = 0; k < tempRows.length; k++) {
+						tempChecksum += tempGenerated.classify(tempRows[k]);
+					} // Of for k
+					long tempEnd = System.nanoTime();
+					tempCompiledTime = Math.min(tempCompiledTime, tempMiddle - tempStart);
+					tempGeneratedTime = Math.min(tempGeneratedTime, tempEnd - tempMiddle);
+				} // Of for r
+
+				System.out.println(tempFilenames[i] + ", type " + tempTypes[j] + ": "
+						+ tempGenerated + " " + tempDifferent + " different predictions. "
+						+ "ns/row: compiled " + tempCompiledTime / tempRows.length
+						+ ", generated " + tempGeneratedTime / tempRows.length + " (checksum "
+						+ tempChecksum + ")");
+			} // Of for j
+		} // Of for i
+	}// Of main
+}// Of class GeneratedBooster
@@ -0,0 +1,181 @@
+package algorithm;
+
+import java.io.FileReader;
+import java.util.Arrays;
+
+import common.Common;
+import common.StepCounter;
+import common.SimpleTools;
+
+/**
+ * The stump classifier working on quantized attributes. Each attribute is
+ * quantized once into at most 256 bins by the weighted instances. In each round
+ * a weighted histogram of classes is built in one pass, and only the cuts
+ * between bins are checked. If an attribute has no more than 256 distinct
+ * values, the stump is the same as that of StumpClassifier.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class HistogramStumpClassifier extends StumpClassifier {
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraWeightedInstances
+	 *            The given instances.
+	 ****************** 
+	 */
+	public HistogramStumpClassifier(WeightedInstances paraWeightedInstances) {
+		super(paraWeightedInstances);
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Train the classifier.
+	 ****************** 
+	 */
+	public void train() {
+		// Step 1. Randomly choose an attribute.
+		selectedAttribute = Common.random.nextInt(numConditions);
+
+		// Step 2. Find the best cut between bins.
+		searchBestBinnedCut(selectedAttribute);
+
+		SimpleTools.variableTrackingOutput(() -> "Attribute = " + selectedAttribute + ", cut = "
+				+ bestCut + ", leftLeafLabel = " + leftLeafLabel + ", rightLeafLabel = "
+				+ rightLeafLabel);
+	}// Of train
+
+	/**
+	 ****************** 
+	 * Find the best cut between bins of the given attribute, and set bestCut,
+	 * leftLeafLabel and rightLeafLabel accordingly. It takes O(numInstances +
+	 * numBins * numClasses) time.
+	 * 
+	 * @param paraAttribute
+	 *            The given attribute.
+	 * @return The weight of correctly classified instances with the best cut.
+	 ****************** 
+	 */
+	double searchBestBinnedCut(int paraAttribute) {
+		byte[] tempBinnedColumn = weightedInstances.getBinnedColumn(paraAttribute);
+		double[] tempCuts = weightedInstances.getBinCuts(paraAttribute);
+		int tempNumBins = tempCuts.length + 1;
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
+		int tempNumLabels = numClasses;
+
+		// Step 1. Build the weighted histogram of each class.
+		double[][] tempHistogram = new double[tempNumBins][tempNumLabels];
+		double[] tempRightCountArray = new double[tempNumLabels];
+		int tempCurrentLabel;
+		for (int i = 0; i < numInstances; i++) {
+			tempCurrentLabel = tempLabels[i];
+			tempHistogram[tempBinnedColumn[i] & 0xFF][tempCurrentLabel] += tempWeights[i];
+			tempRightCountArray[tempCurrentLabel] += tempWeights[i];
+		} // Of for i
+
+		// Step 2. Classify all instances as the same with the original cut.
+		double tempMaxCorrect = 0;
+		int tempBestLabel = -1;
+		for (int i = 0; i < tempRightCountArray.length; i++) {
+			if (tempMaxCorrect < tempRightCountArray[i]) {
+				tempMaxCorrect = tempRightCountArray[i];
+				tempBestLabel = i;
+			} // Of if
+		} // Of for i
+
+		// The cut is a little bit smaller than the minimal value.
+		bestCut = weightedInstances.getMinimum(paraAttribute) - 0.1;
+		leftLeafLabel = tempBestLabel;
+		rightLeafLabel = tempBestLabel;
+
+		// Step 3. Move bins from the right part to the left part one by one.
+		double[] tempLeftCountArray = new double[tempNumLabels];
+		for (int i = 0; i < tempNumBins - 1; i++) {
+			// Step 3.1 Move the ith bin.
+			for (int j = 0; j < tempNumLabels; j++) {
+				tempLeftCountArray[j] += tempHistogram[i][j];
+				tempRightCountArray[j] -= tempHistogram[i][j];
+			} // Of for j
+
+			// Step 3.2 Left leaf.
+			double tempLeftMaxCorrect = 0;
+			int tempLeftBestLabel = 0;
+			for (int j = 0; j < tempNumLabels; j++) {
+				if (tempLeftMaxCorrect < tempLeftCountArray[j]) {
+					tempLeftMaxCorrect = tempLeftCountArray[j];
+					tempLeftBestLabel = j;
+				} // Of if
+			} // Of for j
+
+			// Step 3.3 Right leaf.
+			double tempRightMaxCorrect = 0;
+			int tempRightBestLabel = 0;
+			for (int j = 0; j < tempNumLabels; j++) {
+				if (tempRightMaxCorrect < tempRightCountArray[j]) {
+					tempRightMaxCorrect = tempRightCountArray[j];
+					tempRightBestLabel = j;
+				} // Of if
+			} // Of for j
+
+			// Step 3.4 Compare with the current best.
+			if (tempMaxCorrect < tempLeftMaxCorrect + tempRightMaxCorrect) {
+				tempMaxCorrect = tempLeftMaxCorrect + tempRightMaxCorrect;
+				bestCut = tempCuts[i];
+				leftLeafLabel = tempLeftBestLabel;
+				rightLeafLabel = tempRightBestLabel;
+			} // Of if
+		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(numInstances + (long) (tempNumBins - 1) * tempNumLabels);
+		} // Of if
+
+		return tempMaxCorrect;
+	}// Of searchBestBinnedCut
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "I work on quantized attributes.\r\n" + super.toString();
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		WeightedInstances tempWeightedInstances = null;
+		String tempFilename = "src/data/iris.arff";
+		try {
+			FileReader tempFileReader = new FileReader(tempFilename);
+			tempWeightedInstances = new WeightedInstances(tempFileReader);
+			tempFileReader.close();
+		} catch (Exception ee) {
+			System.out.println("Cannot read the file: " + tempFilename + "\r\n" + ee);
+			System.exit(0);
+		} // Of try
+
+		HistogramStumpClassifier tempClassifier = new HistogramStumpClassifier(
+				tempWeightedInstances);
+		tempClassifier.train();
+		System.out.println(tempClassifier);
+
+		System.out.println(Arrays.toString(tempClassifier.computeCorrectnessArray()));
+	}// Of main
+}// Of class HistogramStumpClassifier
@@ -0,0 +1,138 @@
+package algorithm;
+
+/**
+ * The error of a quantized booster against the compiled booster in double
+ * precision on some rows. If no decision of a base classifier is flipped by
+ * the quantized parameters, the votes may differ only by the rounding of
+ * weights, which is bounded.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class QuantizationError extends Object {
+
+	/**
+	 * The number of checked rows.
+	 */
+	final int numRows;
+
+	/**
+	 * The number of decisions of base classifiers flipped by quantization,
+	 * for all rows.
+	 */
+	final int numFlippedDecisions;
+
+	/**
+	 * The number of rows with different predicted labels.
+	 */
+	final int numDifferentLabels;
+
+	/**
+	 * The largest difference of votes of a class.
+	 */
+	final double maxVoteError;
+
+	/**
+	 * The bound of maxVoteError if no decision is flipped.
+	 */
+	final double voteErrorBound;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraNumRows
+	 *            The number of checked rows.
+	 * @param paraNumFlippedDecisions
+	 *            The number of flipped decisions of base classifiers.
+	 * @param paraNumDifferentLabels
+	 *            The number of rows with different predicted labels.
+	 * @param paraMaxVoteError
+	 *            The largest difference of votes of a class.
+	 * @param paraVoteErrorBound
+	 *            The bound of the difference if no decision is flipped.
+	 ****************** 
+	 */
+	public QuantizationError(int paraNumRows, int paraNumFlippedDecisions,
+			int paraNumDifferentLabels, double paraMaxVoteError, double paraVoteErrorBound) {
+		numRows = paraNumRows;
+		numFlippedDecisions = paraNumFlippedDecisions;
+		numDifferentLabels = paraNumDifferentLabels;
+		maxVoteError = paraMaxVoteError;
+		voteErrorBound = paraVoteErrorBound;
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Is the quantized booster as good as the original one on these rows?
+	 * 
+	 * @return True if no decision is flipped and the votes are within the
+	 *         bound.
+	 ****************** 
+	 */
+	public boolean isWithinBound() {
+		return (numFlippedDecisions == 0) && (maxVoteError <= voteErrorBound);
+	}// Of isWithinBound
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of flipped decisions of base classifiers.
+	 ****************** 
+	 */
+	public int getNumFlippedDecisions() {
+		return numFlippedDecisions;
+	}// Of getNumFlippedDecisions
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of rows with different predicted labels.
+	 ****************** 
+	 */
+	public int getNumDifferentLabels() {
+		return numDifferentLabels;
+	}// Of getNumDifferentLabels
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The largest difference of votes of a class.
+	 ****************** 
+	 */
+	public double getMaxVoteError() {
+		return maxVoteError;
+	}// Of getMaxVoteError
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The bound of the vote error if no decision is flipped.
+	 ****************** 
+	 */
+	public double getVoteErrorBound() {
+		return voteErrorBound;
+	}// Of getVoteErrorBound
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return (isWithinBound() ? "Within bound" : "Out of bound") + " on " + numRows
+				+ " rows: " + numFlippedDecisions + " flipped decisions, " + numDifferentLabels
+				+ " different labels, vote error " + maxVoteError + " (bound " + voteErrorBound
+				+ ").";
+	}// Of toString
+}// Of class QuantizationError
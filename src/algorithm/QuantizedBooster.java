@@ -0,0 +1,378 @@
+package algorithm;
+
+import java.io.FileReader;
+
+import weka.core.Instances;
+
+/**
+ * A compiled booster with quantized parameters. Cuts, weights and Gaussian
+ * coefficients are stored as float, attributes as short, and leaf labels as
+ * byte, all in contiguous arrays. There is no reference to the training set
+ * or the booster, so a model takes about half the memory of the compiled one,
+ * and many models fit in the cache together. Votes are still added in double.
+ * The predictions may differ from Booster.classify(), which can be checked by
+ * checkError().<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class QuantizedBooster extends Object {
+
+	/**
+	 * The number of classes.
+	 */
+	final int numClasses;
+
+	/**
+	 * The number of base classifiers.
+	 */
+	final int numClassifiers;
+
+	/**
+	 * The type of each base classifier, CompiledBooster.STUMP or
+	 * CompiledBooster.GAUSSIAN.
+	 */
+	final byte[] types;
+
+	/**
+	 * The selected attribute of each base classifier.
+	 */
+	final short[] attributes;
+
+	/**
+	 * The weight of each base classifier.
+	 */
+	final float[] alphas;
+
+	/**
+	 * The cut of each stump. Not used by other classifiers.
+	 */
+	final float[] cuts;
+
+	/**
+	 * The leaf labels of each stump, two for each.
+	 */
+	final byte[] leafLabels;
+
+	/**
+	 * The start of coefficients of each Gaussian classifier in coefficients.
+	 */
+	final int[] coefficientStarts;
+
+	/**
+	 * The coefficients of all Gaussian classifiers, in the same layout as
+	 * CompiledBooster.coefficients.
+	 */
+	final float[] coefficients;
+
+	/**
+	 * The votes which do not depend on the row.
+	 */
+	final float[] constantVotes;
+
+	/**
+	 * The bound of the vote error of a class, if no decision of base
+	 * classifiers is flipped.
+	 */
+	final double voteErrorBound;
+
+	/**
+	 * The buffer of votes for each thread.
+	 */
+	private final ThreadLocal<double[]> voteBuffers;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraCompiledBooster
+	 *            The compiled booster, possibly pruned.
+	 ****************** 
+	 */
+	QuantizedBooster(CompiledBooster paraCompiledBooster) {
+		numClasses = paraCompiledBooster.numClasses;
+		numClassifiers = paraCompiledBooster.numClassifiers;
+		if (numClasses > Byte.MAX_VALUE + 1) {
+			throw new IllegalArgumentException("Too many classes to quantize: " + numClasses);
+		} // Of if
+
+		types = paraCompiledBooster.types.clone();
+		attributes = new short[numClassifiers];
+		alphas = new float[numClassifiers];
+		cuts = new float[numClassifiers];
+		leafLabels = new byte[numClassifiers * 2];
+		coefficientStarts = paraCompiledBooster.coefficientStarts.clone();
+		coefficients = new float[paraCompiledBooster.coefficients.length];
+		constantVotes = new float[numClasses];
+
+		// Step 1. Quantize and sum up the errors of weights.
+		double tempWeightError = 0;
+		for (int i = 0; i < numClassifiers; i++) {
+			if (paraCompiledBooster.attributes[i] > Short.MAX_VALUE) {
+				throw new IllegalArgumentException(
+						"Too many attributes to quantize: " + paraCompiledBooster.attributes[i]);
+			} // Of if
+			attributes[i] = (short) paraCompiledBooster.attributes[i];
+			alphas[i] = (float) paraCompiledBooster.alphas[i];
+			tempWeightError += Math.abs(alphas[i] - paraCompiledBooster.alphas[i]);
+			cuts[i] = (float) paraCompiledBooster.cuts[i];
+			leafLabels[i * 2] = (byte) paraCompiledBooster.leafLabels[i * 2];
+			leafLabels[i * 2 + 1] = (byte) paraCompiledBooster.leafLabels[i * 2 + 1];
+		} // Of for i
+
+		for (int i = 0; i < coefficients.length; i++) {
+			coefficients[i] = (float) paraCompiledBooster.coefficients[i];
+		} // Of for i
+
+		for (int i = 0; i < numClasses; i++) {
+			constantVotes[i] = (float) paraCompiledBooster.constantVotes[i];
+			tempWeightError += Math.abs(constantVotes[i] - paraCompiledBooster.constantVotes[i]);
+		} // Of for i
+
+		// Step 2. The rounding error of sums is covered by the tolerance.
+		voteErrorBound = tempWeightError + paraCompiledBooster.tolerance;
+
+		voteBuffers = ThreadLocal.withInitial(() -> new double[numClasses]);
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Classify a row with a vote buffer of the current thread.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow) {
+		return classify(paraRow, voteBuffers.get());
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify a row.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow, double[] paraVotes) {
+		computeVotes(paraRow, paraVotes);
+
+		int resultLabel = -1;
+		double tempMax = -1;
+		for (int i = 0; i < numClasses; i++) {
+			if (tempMax < paraVotes[i]) {
+				tempMax = paraVotes[i];
+				resultLabel = i;
+			} // Of if
+		} // Of for i
+
+		return resultLabel;
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Compute the weighted votes of each class for a row.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 ****************** 
+	 */
+	public void computeVotes(double[] paraRow, double[] paraVotes) {
+		for (int i = 0; i < numClasses; i++) {
+			paraVotes[i] = constantVotes[i];
+		} // Of for i
+
+		for (int i = 0; i < numClassifiers; i++) {
+			int tempLabel = classifyBaseClassifier(i, paraRow[attributes[i]]);
+			paraVotes[tempLabel] += alphas[i];
+		} // Of for i
+	}// Of computeVotes
+
+	/**
+	 ****************** 
+	 * Classify a value with a base classifier.
+	 * 
+	 * @param paraIndex
+	 *            The index of the base classifier.
+	 * @param paraValue
+	 *            The value of its selected attribute.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	int classifyBaseClassifier(int paraIndex, double paraValue) {
+		if (types[paraIndex] == CompiledBooster.STUMP) {
+			return leafLabels[(paraIndex << 1) + (paraValue < cuts[paraIndex] ? 0 : 1)];
+		} // Of if
+
+		// The same arithmetic as the compiled booster, in double.
+		double tempBiggest = CompiledBooster.MIN_PSEUDO_PROBABILITY;
+		int resultBestIndex = 0;
+		int tempIndex = coefficientStarts[paraIndex];
+		for (int i = 0; i < numClasses; i++) {
+			double tempDifference = paraValue - coefficients[tempIndex];
+			double tempPseudoProbability = coefficients[tempIndex + 2]
+					+ (coefficients[tempIndex + 3]
+							- tempDifference * tempDifference / coefficients[tempIndex + 1]);
+			if (tempBiggest < tempPseudoProbability) {
+				tempBiggest = tempPseudoProbability;
+				resultBestIndex = i;
+			} // Of if
+			tempIndex += CompiledBooster.COEFFICIENTS_PER_CLASS;
+		} // Of for i
+
+		return resultBestIndex;
+	}// Of classifyBaseClassifier
+
+	/**
+	 ****************** 
+	 * Check the error against the compiled booster in double precision.
+	 * 
+	 * @param paraCompiledBooster
+	 *            The compiled booster this one is quantized from.
+	 * @param paraInstances
+	 *            The rows to check, e.g., the training set.
+	 * @return The error.
+	 ****************** 
+	 */
+	public QuantizationError checkError(CompiledBooster paraCompiledBooster,
+			Instances paraInstances) {
+		if ((paraCompiledBooster.numClassifiers != numClassifiers)
+				|| (paraCompiledBooster.numClasses != numClasses)) {
+			throw new IllegalArgumentException(
+					"The compiled booster is not the one this booster is quantized from.");
+		} // Of if
+
+		double[] tempVotes = new double[numClasses];
+		double[] tempOriginalVotes = new double[numClasses];
+		int tempNumFlippedDecisions = 0;
+		int tempNumDifferentLabels = 0;
+		double tempMaxVoteError = 0;
+		for (int i = 0; i < paraInstances.numInstances(); i++) {
+			double[] tempRow = paraInstances.instance(i).toDoubleArray();
+
+			// Step 1. Decisions of base classifiers.
+			for (int j = 0; j < numClassifiers; j++) {
+				double tempValue = tempRow[attributes[j]];
+				if (classifyBaseClassifier(j, tempValue) != paraCompiledBooster
+						.classifyBaseClassifier(j, tempValue)) {
+					tempNumFlippedDecisions++;
+				} // Of if
+			} // Of for j
+
+			// Step 2. Votes and labels.
+			if (classify(tempRow, tempVotes) != paraCompiledBooster.classify(tempRow,
+					tempOriginalVotes)) {
+				tempNumDifferentLabels++;
+			} // Of if
+			paraCompiledBooster.computeVotes(tempRow, tempOriginalVotes);
+			for (int j = 0; j < numClasses; j++) {
+				tempMaxVoteError = Math.max(tempMaxVoteError,
+						Math.abs(tempVotes[j] - tempOriginalVotes[j]));
+			} // Of for j
+		} // Of for i
+
+		return new QuantizationError(paraInstances.numInstances(), tempNumFlippedDecisions,
+				tempNumDifferentLabels, tempMaxVoteError, voteErrorBound);
+	}// Of checkError
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The bound of the vote error of a class, if no decision of base
+	 *         classifiers is flipped.
+	 ****************** 
+	 */
+	public double getVoteErrorBound() {
+		return voteErrorBound;
+	}// Of getVoteErrorBound
+
+	/**
+	 ****************** 
+	 * The memory of the parameters.
+	 * 
+	 * @return The number of bytes of all arrays, without headers.
+	 ****************** 
+	 */
+	public long getNumBytes() {
+		return types.length + attributes.length * 2L + alphas.length * 4L + cuts.length * 4L
+				+ leafLabels.length + coefficientStarts.length * 4L + coefficients.length * 4L
+				+ constantVotes.length * 4L;
+	}// Of getNumBytes
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of base classifiers.
+	 ****************** 
+	 */
+	public int getNumClassifiers() {
+		return numClassifiers;
+	}// Of getNumClassifiers
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "I am a quantized booster with " + numClassifiers + " base classifiers in "
+				+ getNumBytes() + " bytes.";
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test. The error of quantization should be small.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = { "src/data/iris.arff", "src/data/wine.arff",
+				"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+		int[] tempTypes = { Booster.STUMP_CLASSIFIER, Booster.BAYES_CLASSIFIER,
+				Booster.Gaussian_CLASSIFIER, Booster.BEST_STUMP_CLASSIFIER };
+
+		for (int i = 0; i < tempFilenames.length; i++) {
+			Instances tempData = null;
+			try {
+				FileReader tempFileReader = new FileReader(tempFilenames[i]);
+				tempData = new Instances(tempFileReader);
+				tempFileReader.close();
+			} catch (Exception ee) {
+				System.out.println("Cannot read the file: " + tempFilenames[i] + "\r\n" + ee);
+				System.exit(0);
+			} // Of try
+
+			for (int j = 0; j < tempTypes.length; j++) {
+				Booster tempBooster = new Booster(tempData);
+				tempBooster.setBaseClassifierType(tempTypes[j]);
+				tempBooster.setNumBaseClassifiers(300);
+				tempBooster.train();
+				CompiledBooster tempCompiled = tempBooster.compile().prune();
+				QuantizedBooster tempQuantized = tempCompiled.quantize();
+
+				System.out.println(tempFilenames[i] + ", type " + tempTypes[j] + ": "
+						+ tempQuantized + " Compiled: " + tempCompiled.getNumBytes()
+						+ " bytes.\r\n  " + tempQuantized.checkError(tempCompiled, tempData));
+			} // Of for j
+		} // Of for i
+	}// Of main
+}// Of class QuantizedBooster
@@ -1,6 +1,6 @@
 package algorithm;
 
-import common.Common;
+import common.StepCounter;
 import weka.core.Instance;
 
 /**
@@ -47,6 +47,11 @@ public abstract class SimpleClassifier extends Object{
 	 */
 	int numConditions;
 
+	/**
+	 * The step counter of the run, shared with the weighted instances.
+	 */
+	StepCounter stepCounter;
+
 	/**
 	 ****************** 
 	 * The first constructor.
@@ -61,6 +66,7 @@ public abstract class SimpleClassifier extends Object{
 		numConditions = weightedInstances.numAttributes() - 1;
 		numInstances = weightedInstances.numInstances();
 		numClasses = weightedInstances.classAttribute().numValues();
+		stepCounter = weightedInstances.getStepCounter();
 	}// Of the first constructor
 	
 	/**
@@ -79,7 +85,37 @@ public abstract class SimpleClassifier extends Object{
 	 * @return Predicted label.
 	 ****************** 
 	 */
-	public abstract int classify(Instance paraInstance);	
+	public int classify(Instance paraInstance) {
+		return classify(paraInstance.value(selectedAttribute));
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify an instance in a column store. No instance object is required.
+	 * 
+	 * @param paraColumns
+	 *            The values of conditional attributes, indexed by (attribute,
+	 *            instance).
+	 * @param paraRow
+	 *            The index of the instance.
+	 * @return Predicted label.
+	 ****************** 
+	 */
+	public int classify(double[][] paraColumns, int paraRow) {
+		return classify(paraColumns[selectedAttribute][paraRow]);
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify an instance according to its value on the selected attribute,
+	 * since a simple classifier considers only one attribute.
+	 * 
+	 * @param paraValue
+	 *            The value of the instance on the selected attribute.
+	 * @return Predicted label.
+	 ****************** 
+	 */
+	public abstract int classify(double paraValue);
 	
 	/**
 	 ****************** 
@@ -89,20 +125,62 @@ public abstract class SimpleClassifier extends Object{
 	 ****************** 
 	 */
 	public boolean[] computeCorrectnessArray() {
-		boolean[] resultCorrectnessArray = new boolean[weightedInstances.numInstances()];
-		for (int i = 0; i < resultCorrectnessArray.length; i++) {
-			Common.runSteps ++;
-			Instance tempInstance = weightedInstances.instance(i);
-			if ((int) (tempInstance.classValue()) == classify(tempInstance)) {
-				resultCorrectnessArray[i] = true;
-			} // Of if
-			
-			//System.out.print("\t" + classify(tempInstance));
-		} // Of for i
-		//System.out.println();
+		boolean[] resultCorrectnessArray = new boolean[numInstances];
+		fillCorrectnessArray(resultCorrectnessArray);
 		return resultCorrectnessArray;
 	}// Of computeCorrectnessArray
 
+	/**
+	 ****************** 
+	 * Classify each instance in the training set once. Which instances are
+	 * correctly classified is stored in the given array, and the weight of
+	 * incorrectly classified instances is returned at the same time.
+	 * 
+	 * @param paraCorrectnessArray
+	 *            The correctness array to fill. Its length is numInstances.
+	 * @return The weighted error, which is not adjusted.
+	 ****************** 
+	 */
+	public double fillCorrectnessArray(boolean[] paraCorrectnessArray) {
+		return fillCorrectnessArray(paraCorrectnessArray, null);
+	}// Of fillCorrectnessArray
+
+	/**
+	 ****************** 
+	 * Classify each instance in the training set once, and keep the predicted
+	 * labels too.
+	 * 
+	 * @param paraCorrectnessArray
+	 *            The correctness array to fill. Its length is numInstances.
+	 * @param paraPredictionArray
+	 *            The predicted labels to fill. Ignored if it is null.
+	 * @return The weighted error, which is not adjusted.
+	 ****************** 
+	 */
+	public double fillCorrectnessArray(boolean[] paraCorrectnessArray,
+			int[] paraPredictionArray) {
+		double resultError = 0;
+		double[] tempColumn = weightedInstances.getColumn(selectedAttribute);
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
+		int tempPrediction;
+		for (int i = 0; i < paraCorrectnessArray.length; i++) {
+			tempPrediction = classify(tempColumn[i]);
+			if (paraPredictionArray != null) {
+				paraPredictionArray[i] = tempPrediction;
+			} // Of if
+			paraCorrectnessArray[i] = (tempLabels[i] == tempPrediction);
+			if (!paraCorrectnessArray[i]) {
+				resultError += tempWeights[i];
+			} // Of if
+		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(paraCorrectnessArray.length);
+		} // Of if
+
+		return resultError;
+	}// Of fillCorrectnessArray
+
 	/**
 	 ****************** 
 	 * Compute the accuracy on the training set.
@@ -114,11 +192,13 @@ public abstract class SimpleClassifier extends Object{
 		double tempCorrect = 0;
 		boolean[] tempCorrectnessArray = computeCorrectnessArray();
 		for (int i = 0; i < tempCorrectnessArray.length; i++) {
-			Common.runSteps ++;
 			if (tempCorrectnessArray[i]) {
 				tempCorrect ++;
 			} // Of if
 		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(tempCorrectnessArray.length);
+		} // Of if
 
 		double resultAccuracy = tempCorrect / tempCorrectnessArray.length;
 
@@ -134,14 +214,7 @@ public abstract class SimpleClassifier extends Object{
 	 ****************** 
 	 */
 	public double computeWeightedError() {
-		double resultError = 0;
-		boolean[] tempCorrectnessArray = computeCorrectnessArray();
-		for (int i = 0; i < tempCorrectnessArray.length; i++) {
-			Common.runSteps ++;
-			if (!tempCorrectnessArray[i]) {
-				resultError += weightedInstances.getWeight(i);
-			} // Of if
-		} // Of for i
+		double resultError = fillCorrectnessArray(new boolean[numInstances]);
 
 		if (resultError < 1e-6) {
 			resultError = 1e-6;
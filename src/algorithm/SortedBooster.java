@@ -0,0 +1,352 @@
+package algorithm;
+
+import java.io.FileReader;
+import java.util.concurrent.atomic.LongAdder;
+
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * A compiled booster evaluating base classifiers in descending order of their
+ * weights. With the remaining weight of classifiers not evaluated yet, scoring
+ * stops as soon as the leading class cannot be overtaken. The result is
+ * exactly the same as Booster.classify(): a margin of rounding errors is kept,
+ * and close rows are classified again in the original order.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class SortedBooster extends Object {
+
+	/**
+	 * Check the clock once for so many classifiers in anytime classification.
+	 * It is a power of 2.
+	 */
+	static final int TIME_CHECK_INTERVAL = 8;
+
+	/**
+	 * The compiled booster.
+	 */
+	final CompiledBooster compiledBooster;
+
+	/**
+	 * The number of classes.
+	 */
+	final int numClasses;
+
+	/**
+	 * The number of base classifiers.
+	 */
+	final int numClassifiers;
+
+	/**
+	 * The indices of base classifiers in the compiled booster, in descending
+	 * order of weights.
+	 */
+	final int[] order;
+
+	/**
+	 * remainingWeights[k] is the total weight of classifiers order[k],
+	 * order[k + 1], ..., i.e., the most votes they may still add to a class.
+	 */
+	final double[] remainingWeights;
+
+	/**
+	 * The leading class is decided if it is ahead of the second one by more
+	 * than the remaining weight plus it. It covers the rounding errors of both
+	 * the votes here and those in the original order.
+	 */
+	final double tolerance;
+
+	/**
+	 * The number of scored rows.
+	 */
+	final LongAdder numScored = new LongAdder();
+
+	/**
+	 * The number of evaluated base classifiers for all scored rows.
+	 */
+	final LongAdder numEvaluated = new LongAdder();
+
+	/**
+	 * The buffer of votes for each thread.
+	 */
+	private final ThreadLocal<double[]> voteBuffers;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraCompiledBooster
+	 *            The compiled booster, possibly pruned.
+	 ****************** 
+	 */
+	SortedBooster(CompiledBooster paraCompiledBooster) {
+		compiledBooster = paraCompiledBooster;
+		numClasses = paraCompiledBooster.numClasses;
+		numClassifiers = paraCompiledBooster.numClassifiers;
+
+		// Step 1. Sort in descending order of weights.
+		double[] tempNegativeAlphas = new double[numClassifiers];
+		for (int i = 0; i < numClassifiers; i++) {
+			tempNegativeAlphas[i] = -paraCompiledBooster.alphas[i];
+		} // Of for i
+		order = Utils.sort(tempNegativeAlphas);
+
+		// Step 2. Suffix sums.
+		remainingWeights = new double[numClassifiers + 1];
+		for (int i = numClassifiers - 1; i >= 0; i--) {
+			remainingWeights[i] = remainingWeights[i + 1] + paraCompiledBooster.alphas[order[i]];
+		} // Of for i
+
+		tolerance = 2 * paraCompiledBooster.tolerance;
+		voteBuffers = ThreadLocal.withInitial(() -> new double[numClasses]);
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Classify a row with a vote buffer of the current thread.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @return The predicted label.
+	 ****************** 
+	 */
+	public int classify(double[] paraRow) {
+		return classify(paraRow, voteBuffers.get());
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify a row, and stop as soon as the result is decided.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraVotes
+	 *            The buffer of length numClasses to store the votes. It is
+	 *            overwritten.
+	 * @return The predicted label, the same as Booster.classify().
+	 ****************** 
+	 */
+	public int classify(double[] paraRow, double[] paraVotes) {
+		// Step 1. Vote until the leading class is decided.
+		for (int i = 0; i < numClasses; i++) {
+			paraVotes[i] = compiledBooster.constantVotes[i];
+		} // Of for i
+
+		int tempNumEvaluated = 0;
+		double tempGap = getGap(paraVotes);
+		while ((tempNumEvaluated < numClassifiers)
+				&& (tempGap <= remainingWeights[tempNumEvaluated] + tolerance)) {
+			int tempIndex = order[tempNumEvaluated];
+			int tempLabel = compiledBooster.classifyBaseClassifier(tempIndex,
+					paraRow[compiledBooster.attributes[tempIndex]]);
+			paraVotes[tempLabel] += compiledBooster.alphas[tempIndex];
+			tempNumEvaluated++;
+			tempGap = getGap(paraVotes);
+		} // Of while
+
+		numScored.increment();
+		numEvaluated.add(tempNumEvaluated);
+
+		// Step 2. Too close, vote in the original order.
+		if (tempGap <= tolerance) {
+			return compiledBooster.classify(paraRow, paraVotes);
+		} // Of if
+
+		return compiledBooster.getBestLabel(paraVotes);
+	}// Of classify
+
+	/**
+	 ****************** 
+	 * Classify a row within a budget. Classifiers are evaluated in descending
+	 * order of weights until the result is decided, or the budget runs out.
+	 * 
+	 * @param paraRow
+	 *            The values of the instance indexed by attributes.
+	 * @param paraMaxClassifiers
+	 *            The most classifiers to evaluate. No limit if it is not
+	 *            positive.
+	 * @param paraDeadline
+	 *            The deadline in System.nanoTime(). No limit if it is
+	 *            Long.MAX_VALUE.
+	 * @return The result with the current label.
+	 ****************** 
+	 */
+	public AnytimeResult classifyAnytime(double[] paraRow, int paraMaxClassifiers,
+			long paraDeadline) {
+		double[] tempVotes = voteBuffers.get();
+		int tempLimit = numClassifiers;
+		if ((paraMaxClassifiers > 0) && (paraMaxClassifiers < numClassifiers)) {
+			tempLimit = paraMaxClassifiers;
+		} // Of if
+		boolean tempCheckTime = paraDeadline != Long.MAX_VALUE;
+
+		// Step 1. Vote until the result is decided or the budget runs out.
+		for (int i = 0; i < numClasses; i++) {
+			tempVotes[i] = compiledBooster.constantVotes[i];
+		} // Of for i
+
+		int tempNumEvaluated = 0;
+		double tempGap = getGap(tempVotes);
+		while ((tempNumEvaluated < tempLimit)
+				&& (tempGap <= remainingWeights[tempNumEvaluated] + tolerance)) {
+			// Reading the clock is not free, so check it every few classifiers.
+			if (tempCheckTime && ((tempNumEvaluated & (TIME_CHECK_INTERVAL - 1)) == 0)
+					&& (System.nanoTime() - paraDeadline >= 0)) {
+				break;
+			} // Of if
+
+			int tempIndex = order[tempNumEvaluated];
+			int tempLabel = compiledBooster.classifyBaseClassifier(tempIndex,
+					paraRow[compiledBooster.attributes[tempIndex]]);
+			tempVotes[tempLabel] += compiledBooster.alphas[tempIndex];
+			tempNumEvaluated++;
+			tempGap = getGap(tempVotes);
+		} // Of while
+
+		numScored.increment();
+		numEvaluated.add(tempNumEvaluated);
+
+		// Step 2. The result.
+		double tempRemainingWeight = remainingWeights[tempNumEvaluated];
+		int tempLabel = compiledBooster.getBestLabel(tempVotes);
+		boolean tempExact = tempGap > tempRemainingWeight + tolerance;
+		if (!tempExact && (tempNumEvaluated == numClassifiers)) {
+			// All evaluated but too close, vote in the original order.
+			tempLabel = compiledBooster.classify(paraRow, tempVotes);
+			tempGap = getGap(tempVotes);
+			tempExact = true;
+		} // Of if
+
+		return new AnytimeResult(tempLabel, tempExact, tempGap, tempRemainingWeight,
+				tempNumEvaluated);
+	}// Of classifyAnytime
+
+	/**
+	 ****************** 
+	 * The difference between the votes of the best two classes.
+	 * 
+	 * @param paraVotes
+	 *            The votes of each class.
+	 * @return The difference. For only one class, it is infinity.
+	 ****************** 
+	 */
+	double getGap(double[] paraVotes) {
+		double tempMax = Double.NEGATIVE_INFINITY;
+		double tempSecondMax = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < numClasses; i++) {
+			if (tempMax < paraVotes[i]) {
+				tempSecondMax = tempMax;
+				tempMax = paraVotes[i];
+			} else if (tempSecondMax < paraVotes[i]) {
+				tempSecondMax = paraVotes[i];
+			} // Of if
+		} // Of for i
+
+		return tempMax - tempSecondMax;
+	}// Of getGap
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The average number of evaluated base classifiers for each row
+	 *         since the last reset.
+	 ****************** 
+	 */
+	public double getAverageEvaluated() {
+		long tempNumScored = numScored.sum();
+		if (tempNumScored == 0) {
+			return 0;
+		} // Of if
+		return (double) numEvaluated.sum() / tempNumScored;
+	}// Of getAverageEvaluated
+
+	/**
+	 ****************** 
+	 * Reset the statistics of evaluated base classifiers.
+	 ****************** 
+	 */
+	public void resetStatistics() {
+		numScored.reset();
+		numEvaluated.reset();
+	}// Of resetStatistics
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of base classifiers.
+	 ****************** 
+	 */
+	public int getNumClassifiers() {
+		return numClassifiers;
+	}// Of getNumClassifiers
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		return "I am a sorted booster with " + numClassifiers
+				+ " base classifiers, evaluating " + getAverageEvaluated()
+				+ " of them for each row on average.";
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test. The sorted booster should classify each instance the same
+	 * as the booster.
+	 * 
+	 * @param args
+	 *            Not provided.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String[] tempFilenames = { "src/data/iris.arff", "src/data/wine.arff",
+				"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+		int[] tempTypes = { Booster.STUMP_CLASSIFIER, Booster.BAYES_CLASSIFIER,
+				Booster.Gaussian_CLASSIFIER, Booster.BEST_STUMP_CLASSIFIER };
+
+		for (int i = 0; i < tempFilenames.length; i++) {
+			Instances tempData = null;
+			try {
+				FileReader tempFileReader = new FileReader(tempFilenames[i]);
+				tempData = new Instances(tempFileReader);
+				tempFileReader.close();
+			} catch (Exception ee) {
+				System.out.println("Cannot read the file: " + tempFilenames[i] + "\r\n" + ee);
+				System.exit(0);
+			} // Of try
+
+			for (int j = 0; j < tempTypes.length; j++) {
+				Booster tempBooster = new Booster(tempData);
+				tempBooster.setBaseClassifierType(tempTypes[j]);
+				tempBooster.setNumBaseClassifiers(200);
+				tempBooster.train();
+				SortedBooster tempSorted = tempBooster.compileSorted();
+
+				int tempDifferent = 0;
+				for (int k = 0; k < tempData.numInstances(); k++) {
+					if (tempBooster.classify(tempData.instance(k)) != tempSorted
+							.classify(tempData.instance(k).toDoubleArray())) {
+						tempDifferent++;
+					} // Of if
+				} // Of for k
+				System.out.println(tempFilenames[i] + ", type " + tempTypes[j] + ": "
+						+ tempDifferent + " different predictions. " + tempSorted);
+				System.out.println("  With at most 5 classifiers, the first instance: "
+						+ tempSorted.classifyAnytime(tempData.instance(0).toDoubleArray(), 5,
+								Long.MAX_VALUE));
+			} // Of for j
+		} // Of for i
+	}// Of main
+}// Of class SortedBooster
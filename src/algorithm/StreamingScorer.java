@@ -0,0 +1,552 @@
+package algorithm;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.converters.ArffLoader;
+
+/**
+ * Score an ARFF or CSV file row by row with a trained booster. Only one row is
+ * in memory at a time, so the file may be larger than the heap. Predictions,
+ * and optionally the margins of each class, are written to the output file
+ * line by line. If the rows have labels, the accuracy and the confusion matrix
+ * are kept.<br>
+ * A CSV file has the same attributes as the training data in the same order,
+ * optionally without the class. The first line is skipped if it is a header,
+ * i.e., its values are the names of the attributes. Values may be quoted with
+ * ' or ", and unknown nominal values are rejected.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class StreamingScorer extends Object {
+
+	/**
+	 * The compiled booster.
+	 */
+	CompiledBooster compiledBooster;
+
+	/**
+	 * The header of the training data.
+	 */
+	Instances header;
+
+	/**
+	 * The number of classes.
+	 */
+	int numClasses;
+
+	/**
+	 * Write the margins of each class after the prediction or not.
+	 */
+	boolean outputMargins;
+
+	/**
+	 * The number of scored rows.
+	 */
+	long numScored;
+
+	/**
+	 * The number of rows with labels.
+	 */
+	long numLabeled;
+
+	/**
+	 * The number of correctly classified rows with labels.
+	 */
+	long numCorrect;
+
+	/**
+	 * The confusion matrix. confusionMatrix[i][j] is the number of rows with
+	 * label i predicted as j.
+	 */
+	long[][] confusionMatrix;
+
+	/**
+	 * The buffer of margins.
+	 */
+	double[] margins;
+
+	/**
+	 ****************** 
+	 * The only constructor.
+	 * 
+	 * @param paraBooster
+	 *            The trained booster.
+	 ****************** 
+	 */
+	public StreamingScorer(Booster paraBooster) {
+		compiledBooster = paraBooster.compile();
+		header = new Instances(paraBooster.trainingHeader, 0);
+		numClasses = compiledBooster.getNumClasses();
+		confusionMatrix = new long[numClasses][numClasses];
+		margins = new double[numClasses];
+	}// Of the only constructor
+
+	/**
+	 ****************** 
+	 * Setter.
+	 * 
+	 * @param paraOutputMargins
+	 *            Write the margins of each class after the prediction or not.
+	 ****************** 
+	 */
+	public void setOutputMargins(boolean paraOutputMargins) {
+		outputMargins = paraOutputMargins;
+	}// Of setOutputMargins
+
+	/**
+	 ****************** 
+	 * Score a file. The counters are reset first.
+	 * 
+	 * @param paraInputFilename
+	 *            The ARFF or CSV file, according to the extension.
+	 * @param paraOutputFilename
+	 *            The file to write predictions.
+	 * @return The accuracy, NaN if no row has a label.
+	 * @throws IOException
+	 *             If the files cannot be read or written.
+	 ****************** 
+	 */
+	public double score(String paraInputFilename, String paraOutputFilename) throws IOException {
+		numScored = 0;
+		numLabeled = 0;
+		numCorrect = 0;
+		confusionMatrix = new long[numClasses][numClasses];
+
+		BufferedWriter tempWriter = new BufferedWriter(new FileWriter(paraOutputFilename));
+		try {
+			if (paraInputFilename.toLowerCase().endsWith(".csv")) {
+				scoreCsv(paraInputFilename, tempWriter);
+			} else {
+				scoreArff(paraInputFilename, tempWriter);
+			} // Of if
+		} finally {
+			tempWriter.close();
+		} // Of try
+
+		return getAccuracy();
+	}// Of score
+
+	/**
+	 ****************** 
+	 * Score an ARFF file with the incremental loader of Weka. Nominal values,
+	 * including labels, are mapped onto the training header by their names,
+	 * since the file may declare them in another order.
+	 * 
+	 * @param paraFilename
+	 *            The ARFF file.
+	 * @param paraWriter
+	 *            The writer of predictions.
+	 * @throws IOException
+	 *             If the file cannot be read or written, or its attributes do
+	 *             not match the training data.
+	 ****************** 
+	 */
+	void scoreArff(String paraFilename, BufferedWriter paraWriter) throws IOException {
+		ArffLoader tempLoader = new ArffLoader();
+		try {
+			tempLoader.setSource(new File(paraFilename));
+			Instances tempStructure = tempLoader.getStructure();
+			int tempNumAttributes = tempStructure.numAttributes();
+			if (tempNumAttributes != header.numAttributes()
+					&& tempNumAttributes != header.numAttributes() - 1) {
+				throw new IOException("The number of attributes of " + paraFilename
+						+ " does not match the training data.");
+			} // Of if
+			boolean tempHasClass = tempNumAttributes == header.numAttributes();
+			if (tempHasClass) {
+				tempStructure.setClassIndex(tempNumAttributes - 1);
+			} // Of if
+
+			// Step 1. Map the indices of nominal values in the file to those of
+			// the training header, -1 for unknown values.
+			int[][] tempValueMaps = new int[tempNumAttributes][];
+			for (int i = 0; i < tempNumAttributes; i++) {
+				Attribute tempTrainingAttribute = header.attribute(i);
+				Attribute tempAttribute = tempStructure.attribute(i);
+				if (tempTrainingAttribute.isNominal() != tempAttribute.isNominal()) {
+					throw new IOException("The type of attribute " + tempAttribute.name()
+							+ " of " + paraFilename + " does not match the training data.");
+				} // Of if
+				if (tempAttribute.isNominal()) {
+					tempValueMaps[i] = new int[tempAttribute.numValues()];
+					for (int j = 0; j < tempAttribute.numValues(); j++) {
+						tempValueMaps[i][j] = tempTrainingAttribute
+								.indexOfValue(tempAttribute.value(j));
+					} // Of for j
+				} // Of if
+			} // Of for i
+
+			// Step 2. Score rows one by one.
+			double[] tempRow = new double[header.numAttributes()];
+			Instance tempInstance;
+			while ((tempInstance = tempLoader.getNextInstance(tempStructure)) != null) {
+				for (int i = 0; i < tempNumAttributes; i++) {
+					tempRow[i] = mapValue(tempInstance.value(i), tempValueMaps[i]);
+				} // Of for i
+
+				int tempLabel = -1;
+				if (tempHasClass && !Double.isNaN(tempRow[tempNumAttributes - 1])) {
+					tempLabel = (int) tempRow[tempNumAttributes - 1];
+				} // Of if
+				scoreRow(tempRow, tempLabel, paraWriter);
+			} // Of while
+		} finally {
+			tempLoader.reset();
+		} // Of try
+	}// Of scoreArff
+
+	/**
+	 ****************** 
+	 * Map a value of the input file onto the training header.
+	 * 
+	 * @param paraValue
+	 *            The value in the input file.
+	 * @param paraValueMap
+	 *            The map of nominal value indices, null for numeric
+	 *            attributes.
+	 * @return The value for the training header, NaN if it is missing or an
+	 *         unknown nominal value.
+	 ****************** 
+	 */
+	static double mapValue(double paraValue, int[] paraValueMap) {
+		if ((paraValueMap == null) || Double.isNaN(paraValue)) {
+			return paraValue;
+		} // Of if
+
+		int tempIndex = paraValueMap[(int) paraValue];
+		return tempIndex < 0 ? Double.NaN : tempIndex;
+	}// Of mapValue
+
+	/**
+	 ****************** 
+	 * Score a CSV file. Nominal values are mapped with the training header, and
+	 * "?" or empty values are missing.
+	 * 
+	 * @param paraFilename
+	 *            The CSV file.
+	 * @param paraWriter
+	 *            The writer of predictions.
+	 * @throws IOException
+	 *             If the file cannot be read or written, or a line does not
+	 *             match the training data.
+	 ****************** 
+	 */
+	void scoreCsv(String paraFilename, BufferedWriter paraWriter) throws IOException {
+		int tempNumAttributes = header.numAttributes();
+		double[] tempRow = new double[tempNumAttributes];
+		BufferedReader tempReader = new BufferedReader(new FileReader(paraFilename));
+		try {
+			String tempLine;
+			boolean tempFirstLine = true;
+			while ((tempLine = tempReader.readLine()) != null) {
+				if (tempLine.trim().isEmpty()) {
+					continue;
+				} // Of if
+
+				String[] tempValues = splitCsvLine(tempLine);
+				if (tempValues == null || (tempValues.length != tempNumAttributes
+						&& tempValues.length != tempNumAttributes - 1)) {
+					throw new IOException("Line \"" + tempLine + "\" of " + paraFilename
+							+ " does not match the training data.");
+				} // Of if
+
+				// Step 1. Skip the header.
+				if (tempFirstLine) {
+					tempFirstLine = false;
+					if (isHeader(tempValues)) {
+						continue;
+					} // Of if
+				} // Of if
+
+				try {
+					// Step 2. Conditional attributes.
+					for (int i = 0; i < tempNumAttributes - 1; i++) {
+						tempRow[i] = parseValue(header.attribute(i), tempValues[i]);
+					} // Of for i
+
+					// Step 3. The label, if any.
+					int tempLabel = -1;
+					if (tempValues.length == tempNumAttributes) {
+						double tempClassValue = parseValue(header.classAttribute(),
+								tempValues[tempNumAttributes - 1]);
+						if (!Double.isNaN(tempClassValue)) {
+							tempLabel = (int) tempClassValue;
+						} // Of if
+					} // Of if
+					scoreRow(tempRow, tempLabel, paraWriter);
+				} catch (IllegalArgumentException ee) {
+					throw new IOException("Line \"" + tempLine + "\" of " + paraFilename + ": "
+							+ ee.getMessage());
+				} // Of try
+			} // Of while
+		} finally {
+			tempReader.close();
+		} // Of try
+	}// Of scoreCsv
+
+	/**
+	 ****************** 
+	 * Split a line of a CSV file by commas outside quotes. A value may be quoted
+	 * with ' or ", and a doubled quote inside stands for the quote itself.
+	 * 
+	 * @param paraLine
+	 *            The line.
+	 * @return The unquoted values, null if a quote is not closed.
+	 ****************** 
+	 */
+	static String[] splitCsvLine(String paraLine) {
+		ArrayList<String> resultValues = new ArrayList<String>();
+		StringBuilder tempBuilder = new StringBuilder();
+		char tempQuote = 0;
+		for (int i = 0; i < paraLine.length(); i++) {
+			char tempChar = paraLine.charAt(i);
+			if (tempQuote != 0) {
+				if (tempChar != tempQuote) {
+					tempBuilder.append(tempChar);
+				} else if ((i + 1 < paraLine.length()) && (paraLine.charAt(i + 1) == tempQuote)) {
+					tempBuilder.append(tempChar);
+					i++;
+				} else {
+					tempQuote = 0;
+				} // Of if
+			} else if (tempChar == ',') {
+				resultValues.add(tempBuilder.toString());
+				tempBuilder.setLength(0);
+			} else if ((tempChar == '"' || tempChar == '\'')
+					&& tempBuilder.toString().trim().isEmpty()) {
+				// A quote opens only at the beginning of a value.
+				tempQuote = tempChar;
+				tempBuilder.setLength(0);
+			} else {
+				tempBuilder.append(tempChar);
+			} // Of if
+		} // Of for i
+
+		if (tempQuote != 0) {
+			return null;
+		} // Of if
+		resultValues.add(tempBuilder.toString());
+
+		return resultValues.toArray(new String[resultValues.size()]);
+	}// Of splitCsvLine
+
+	/**
+	 ****************** 
+	 * Is the line a header, i.e., are its values the names of the attributes?
+	 * 
+	 * @param paraValues
+	 *            The values of the line.
+	 * @return True if each value is the name of the attribute at its place.
+	 ****************** 
+	 */
+	boolean isHeader(String[] paraValues) {
+		for (int i = 0; i < paraValues.length; i++) {
+			if (!paraValues[i].trim().equals(header.attribute(i).name())) {
+				return false;
+			} // Of if
+		} // Of for i
+
+		return true;
+	}// Of isHeader
+
+	/**
+	 ****************** 
+	 * Is the value missing?
+	 * 
+	 * @param paraString
+	 *            The value in the file.
+	 * @return True if it is "?" or empty.
+	 ****************** 
+	 */
+	static boolean isMissing(String paraString) {
+		String tempString = paraString.trim();
+		return tempString.isEmpty() || tempString.equals("?");
+	}// Of isMissing
+
+	/**
+	 ****************** 
+	 * Parse an unquoted value of a CSV file.
+	 * 
+	 * @param paraAttribute
+	 *            The attribute.
+	 * @param paraString
+	 *            The value in the file.
+	 * @return The internal value, i.e., the index for a nominal attribute. NaN
+	 *         if it is missing.
+	 * @throws IllegalArgumentException
+	 *             If it is an unknown nominal value or not a number.
+	 ****************** 
+	 */
+	static double parseValue(Attribute paraAttribute, String paraString) {
+		if (isMissing(paraString)) {
+			return Double.NaN;
+		} // Of if
+
+		String tempString = paraString.trim();
+		if (paraAttribute.isNominal()) {
+			int tempIndex = paraAttribute.indexOfValue(tempString);
+			if (tempIndex < 0) {
+				throw new IllegalArgumentException("\"" + tempString
+						+ "\" is not a declared value of attribute " + paraAttribute.name() + ".");
+			} // Of if
+			return tempIndex;
+		} // Of if
+
+		try {
+			return Double.parseDouble(tempString);
+		} catch (NumberFormatException ee) {
+			throw new IllegalArgumentException("\"" + tempString + "\" of attribute "
+					+ paraAttribute.name() + " is not numeric.");
+		} // Of try
+	}// Of parseValue
+
+	/**
+	 ****************** 
+	 * Score a row, write the prediction and update the counters.
+	 * 
+	 * @param paraRow
+	 *            The values indexed by attributes.
+	 * @param paraLabel
+	 *            The label, -1 if unknown.
+	 * @param paraWriter
+	 *            The writer of predictions.
+	 * @throws IOException
+	 *             If the prediction cannot be written.
+	 ****************** 
+	 */
+	void scoreRow(double[] paraRow, int paraLabel, BufferedWriter paraWriter)
+			throws IOException {
+		double[] tempVotes = compiledBooster.getVoteBuffer();
+		compiledBooster.computeVotes(paraRow, tempVotes);
+		int tempPrediction = compiledBooster.getBestLabel(tempVotes);
+
+		paraWriter.write(header.classAttribute().value(tempPrediction));
+		if (outputMargins) {
+			compiledBooster.computeMargins(tempVotes, margins);
+			for (int i = 0; i < numClasses; i++) {
+				paraWriter.write(',');
+				paraWriter.write(Double.toString(margins[i]));
+			} // Of for i
+		} // Of if
+		paraWriter.newLine();
+
+		numScored++;
+		if (paraLabel >= 0) {
+			numLabeled++;
+			confusionMatrix[paraLabel][tempPrediction]++;
+			if (paraLabel == tempPrediction) {
+				numCorrect++;
+			} // Of if
+		} // Of if
+	}// Of scoreRow
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The accuracy on rows with labels, NaN if there is none.
+	 ****************** 
+	 */
+	public double getAccuracy() {
+		if (numLabeled == 0) {
+			return Double.NaN;
+		} // Of if
+		return (double) numCorrect / numLabeled;
+	}// Of getAccuracy
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The number of scored rows.
+	 ****************** 
+	 */
+	public long getNumScored() {
+		return numScored;
+	}// Of getNumScored
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The confusion matrix, indexed by labels and then predictions.
+	 ****************** 
+	 */
+	public long[][] getConfusionMatrix() {
+		return confusionMatrix;
+	}// Of getConfusionMatrix
+
+	/**
+	 ****************** 
+	 * For display.
+	 ****************** 
+	 */
+	public String toString() {
+		String resultString = "Scored " + numScored + " rows, " + numLabeled
+				+ " with labels, accuracy " + getAccuracy() + ".\r\nConfusion matrix:";
+		for (int i = 0; i < numClasses; i++) {
+			resultString += "\r\n";
+			for (int j = 0; j < numClasses; j++) {
+				resultString += confusionMatrix[i][j] + "\t";
+			} // Of for j
+		} // Of for i
+
+		return resultString;
+	}// Of toString
+
+	/**
+	 ****************** 
+	 * For unit test.
+	 * 
+	 * @param args
+	 *            The file to score, the output file and optionally the training
+	 *            file. If not provided, src/data/iris.arff is scored into the
+	 *            temporary directory.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		String tempTrainingFilename = "src/data/iris.arff";
+		String tempInputFilename = tempTrainingFilename;
+		String tempOutputFilename = new File(System.getProperty("java.io.tmpdir"),
+				"iris_predictions.txt").getPath();
+		if (args.length >= 2) {
+			tempInputFilename = args[0];
+			tempOutputFilename = args[1];
+		} // Of if
+		if (args.length >= 3) {
+			tempTrainingFilename = args[2];
+		} // Of if
+
+		Booster tempBooster = new Booster(tempTrainingFilename);
+		tempBooster.setNumBaseClassifiers(100);
+		tempBooster.train();
+
+		StreamingScorer tempScorer = new StreamingScorer(tempBooster);
+		tempScorer.setOutputMargins(true);
+		try {
+			tempScorer.score(tempInputFilename, tempOutputFilename);
+		} catch (IOException ee) {
+			System.out.println("Cannot score the file: " + tempInputFilename + "\r\n" + ee);
+			System.exit(0);
+		} // Of try
+
+		System.out.println(tempScorer);
+		System.out.println("The accuracy of Booster.test() is: " + tempBooster.test());
+	}// Of main
+}// Of class StreamingScorer
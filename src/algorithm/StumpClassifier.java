@@ -1,10 +1,10 @@
 package algorithm;
 
-import weka.core.Instance;
 import java.io.FileReader;
 import java.util.*;
 
 import common.Common;
+import common.StepCounter;
 import common.SimpleTools;
 
 /**
@@ -57,123 +57,301 @@ public class StumpClassifier extends SimpleClassifier{
 		// Step 1. Randomly choose an attribute.
 		selectedAttribute = Common.random.nextInt(numConditions);
 
-		// Step 2. Find all attribute values and sort.
-		double[] tempValuesArray = new double[numInstances];
-		for (int i = 0; i < tempValuesArray.length; i++) {
-			tempValuesArray[i] = weightedInstances.instance(i).value(selectedAttribute);
-		} // Of for i
-		Arrays.sort(tempValuesArray);
-		Common.runSteps += (long)(numInstances * Math.log(numInstances) / Math.log(2));
+		// Step 2. Find the best cut on this attribute.
+		searchBestCut(selectedAttribute);
+
+		SimpleTools.variableTrackingOutput(() -> "Attribute = " + selectedAttribute + ", cut = "
+				+ bestCut + ", leftLeafLabel = " + leftLeafLabel + ", rightLeafLabel = "
+				+ rightLeafLabel);
+	}// Of train
+
+	/**
+	 ****************** 
+	 * Find the best cut on the given attribute, and set bestCut, leftLeafLabel
+	 * and rightLeafLabel accordingly. Instances are presorted by the weighted
+	 * instances. They are moved from the right part to the left part one by
+	 * one, while the weighted count of each class is kept for both parts.
+	 * Therefore each candidate cut is checked in O(numClasses) time, and the
+	 * whole search is one linear pass. Sparse attributes are searched by
+	 * searchBestSparseCut() instead.
+	 * 
+	 * @param paraAttribute
+	 *            The given attribute.
+	 * @return The weight of correctly classified instances with the best cut.
+	 ****************** 
+	 */
+	double searchBestCut(int paraAttribute) {
+		if (weightedInstances.isSparse(paraAttribute)) {
+			return searchBestSparseCut(paraAttribute);
+		} // Of if
 
-		// Step 3. Initialize, classify all instances as the same with the
+		// Step 1. Obtain instances sorted by the attribute value.
+		int[] tempSortedIndices = weightedInstances.getSortedIndices(paraAttribute);
+		double[] tempColumn = weightedInstances.getColumn(paraAttribute);
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
+
+		// Step 2. Initialize, classify all instances as the same with the
 		// original cut.
 		int tempNumLabels = numClasses;
-		double[] tempLabelCountArray = new double[tempNumLabels];
 		int tempCurrentLabel;
 
-		// Step 3.1 Scan all labels to obtain their counts.
+		// Step 2.1 Scan all labels to obtain their counts. All instances are in
+		// the right part now.
+		double[] tempLeftCountArray = new double[tempNumLabels];
+		double[] tempRightCountArray = new double[tempNumLabels];
 		for (int i = 0; i < numInstances; i++) {
-			Common.runSteps ++;
 			// The label of the ith instance
-			tempCurrentLabel = (int) weightedInstances.instance(i).classValue();
-			tempLabelCountArray[tempCurrentLabel] += weightedInstances.getWeight(i);
+			tempRightCountArray[tempLabels[i]] += tempWeights[i];
 		} // Of for i
+		long tempSteps = numInstances;
 
-		// Step 3.2 Find the label with the maximal count.
+		// Step 2.2 Find the label with the maximal count.
 		double tempMaxCorrect = 0;
 		int tempBestLabel = -1;
-		for (int i = 0; i < tempLabelCountArray.length; i++) {
-			if (tempMaxCorrect < tempLabelCountArray[i]) {
-				tempMaxCorrect = tempLabelCountArray[i];
+		for (int i = 0; i < tempRightCountArray.length; i++) {
+			if (tempMaxCorrect < tempRightCountArray[i]) {
+				tempMaxCorrect = tempRightCountArray[i];
 				tempBestLabel = i;
 			} // Of if
 		} // Of for i
 
-		// Step 3.3 The cut is a little bit smaller than the minimal value.
-		bestCut = tempValuesArray[0] - 0.1;
+		// Step 2.3 The cut is a little bit smaller than the minimal value.
+		bestCut = tempColumn[tempSortedIndices[0]] - 0.1;
 		leftLeafLabel = tempBestLabel;
 		rightLeafLabel = tempBestLabel;
 
-		// Step 4. Check candidate cuts one by one.
-		// Step 4.1 To handle multi-class data, left and right.
+		// Step 3. Check candidate cuts one by one.
 		double tempCut;
-		double[][] tempLabelCountMatrix = new double[2][tempNumLabels];
+		double tempCurrentValue;
+		double tempNextValue = tempColumn[tempSortedIndices[0]];
+		int tempIndex;
+		for (int i = 0; i < numInstances - 1; i++) {
+			// Step 3.1 Move the ith smallest instance to the left part.
+			if (StepCounter.COUNT_STEPS) {
+				tempSteps++;
+			} // Of if
+			tempIndex = tempSortedIndices[i];
+			tempCurrentLabel = tempLabels[tempIndex];
+			tempLeftCountArray[tempCurrentLabel] += tempWeights[tempIndex];
+			tempRightCountArray[tempCurrentLabel] -= tempWeights[tempIndex];
 
-		for (int i = 0; i < tempValuesArray.length - 1; i++) {
-			// Step 4.1 Some attribute values are identical, ignore them.
-			if (tempValuesArray[i] == tempValuesArray[i + 1]) {
+			// Step 3.2 Some attribute values are identical, ignore them.
+			tempCurrentValue = tempNextValue;
+			tempNextValue = tempColumn[tempSortedIndices[i + 1]];
+			if (tempCurrentValue == tempNextValue) {
 				continue;
 			} // Of if
-			tempCut = (tempValuesArray[i] + tempValuesArray[i + 1]) / 2;
-
-			// Step 4.2 Scan all labels to obtain their counts wrt. the cut.
-			// Initialize again since it is used many times.
-			for (int j = 0; j < 2; j++) {
-				for (int k = 0; k < tempNumLabels; k++) {
-					Common.runSteps ++;
-					tempLabelCountMatrix[j][k] = 0;
-				} // Of for k
+
+			// Missing values are sorted to the end, and they never go left.
+			if (Double.isNaN(tempNextValue)) {
+				break;
+			} // Of if
+			tempCut = (tempCurrentValue + tempNextValue) / 2;
+			if (StepCounter.COUNT_STEPS) {
+				tempSteps += 2 * tempNumLabels;
+			} // Of if
+
+			// Step 3.3 Left leaf.
+			double tempLeftMaxCorrect = 0;
+			int tempLeftBestLabel = 0;
+			for (int j = 0; j < tempNumLabels; j++) {
+				if (tempLeftMaxCorrect < tempLeftCountArray[j]) {
+					tempLeftMaxCorrect = tempLeftCountArray[j];
+					tempLeftBestLabel = j;
+				} // Of if
+			} // Of for j
+
+			// Step 3.4 Right leaf.
+			double tempRightMaxCorrect = 0;
+			int tempRightBestLabel = 0;
+			for (int j = 0; j < tempNumLabels; j++) {
+				if (tempRightMaxCorrect < tempRightCountArray[j]) {
+					tempRightMaxCorrect = tempRightCountArray[j];
+					tempRightBestLabel = j;
+				} // Of if
 			} // Of for j
 
-			for (int j = 0; j < numInstances; j++) {
-				Common.runSteps ++;
-				// The label of the jth instance
-				tempCurrentLabel = (int) weightedInstances.instance(j).classValue();
-				if (weightedInstances.instance(j).value(selectedAttribute) < tempCut) {
-					tempLabelCountMatrix[0][tempCurrentLabel] += weightedInstances.getWeight(j);
-				} else {
-					tempLabelCountMatrix[1][tempCurrentLabel] += weightedInstances.getWeight(j);
+			// Step 3.5 Compare with the current best.
+			if (tempMaxCorrect < tempLeftMaxCorrect + tempRightMaxCorrect) {
+				if (StepCounter.COUNT_STEPS) {
+					tempSteps++;
+				} // Of if
+				tempMaxCorrect = tempLeftMaxCorrect + tempRightMaxCorrect;
+				bestCut = tempCut;
+				leftLeafLabel = tempLeftBestLabel;
+				rightLeafLabel = tempRightBestLabel;
+			} // Of if
+		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(tempSteps);
+		} // Of if
+
+		return tempMaxCorrect;
+	}// Of searchBestCut
+
+	/**
+	 ****************** 
+	 * Find the best cut on a sparse attribute, the same as searchBestCut().
+	 * Only instances with non-zero values are visited. Those with 0 form one
+	 * block between negative and positive values, and the weight of each class
+	 * in the block is the weight of the class minus that of non-zero
+	 * instances. The block is moved to the left part at once. Therefore the
+	 * search takes O(numNonZeros + numClasses) time instead of O(numInstances).
+	 * 
+	 * @param paraAttribute
+	 *            The given sparse attribute.
+	 * @return The weight of correctly classified instances with the best cut.
+	 ****************** 
+	 */
+	double searchBestSparseCut(int paraAttribute) {
+		// Step 1. Obtain instances with non-zero values sorted by the values.
+		int[] tempNonZeroIndices = weightedInstances.getNonZeroIndices(paraAttribute);
+		double[] tempColumn = weightedInstances.getColumn(paraAttribute);
+		int[] tempLabels = weightedInstances.getLabels();
+		double[] tempWeights = weightedInstances.getWeights();
+		int tempNumNonZeros = tempNonZeroIndices.length;
+		int tempNumLabels = numClasses;
+		int tempCurrentLabel;
+
+		// Step 2. Initialize, all instances are in the right part now.
+		double[] tempLeftCountArray = new double[tempNumLabels];
+		double[] tempRightCountArray = weightedInstances.getClassWeights().clone();
+
+		// Step 2.1 The weighted count of each class in the block of 0.
+		double[] tempZeroCountArray = tempRightCountArray.clone();
+		int tempNumNegatives = 0;
+		for (int i = 0; i < tempNumNonZeros; i++) {
+			tempCurrentLabel = tempLabels[tempNonZeroIndices[i]];
+			tempZeroCountArray[tempCurrentLabel] -= tempWeights[tempNonZeroIndices[i]];
+			if (tempColumn[tempNonZeroIndices[i]] < 0) {
+				tempNumNegatives++;
+			} // Of if
+		} // Of for i
+		long tempSteps = tempNumNonZeros + tempNumLabels;
+
+		// Step 2.2 Find the label with the maximal count.
+		double tempMaxCorrect = 0;
+		int tempBestLabel = -1;
+		for (int i = 0; i < tempRightCountArray.length; i++) {
+			if (tempMaxCorrect < tempRightCountArray[i]) {
+				tempMaxCorrect = tempRightCountArray[i];
+				tempBestLabel = i;
+			} // Of if
+		} // Of for i
+
+		// Step 2.3 The block of 0 is one more item between negative and
+		// positive values.
+		boolean tempHasZeros = tempNumNonZeros < numInstances;
+		int tempNumItems = tempNumNonZeros + (tempHasZeros ? 1 : 0);
+		double tempNextValue;
+		if (tempHasZeros && (tempNumNegatives == 0)) {
+			tempNextValue = 0;
+		} else {
+			tempNextValue = tempColumn[tempNonZeroIndices[0]];
+		} // Of if
+
+		// Step 2.4 The cut is a little bit smaller than the minimal value.
+		bestCut = tempNextValue - 0.1;
+		leftLeafLabel = tempBestLabel;
+		rightLeafLabel = tempBestLabel;
+
+		// Step 3. Check candidate cuts one by one.
+		double tempCut;
+		double tempCurrentValue;
+		int tempIndex;
+		int tempNonZeroPosition = 0;
+		for (int i = 0; i < tempNumItems - 1; i++) {
+			// Step 3.1 Move the ith smallest item to the left part.
+			if (StepCounter.COUNT_STEPS) {
+				tempSteps++;
+			} // Of if
+			if (tempHasZeros && (i == tempNumNegatives)) {
+				for (int j = 0; j < tempNumLabels; j++) {
+					tempLeftCountArray[j] += tempZeroCountArray[j];
+					tempRightCountArray[j] -= tempZeroCountArray[j];
+				} // Of for j
+				if (StepCounter.COUNT_STEPS) {
+					tempSteps += tempNumLabels;
 				} // Of if
-			} // Of for i
+			} else {
+				tempIndex = tempNonZeroIndices[tempNonZeroPosition];
+				tempNonZeroPosition++;
+				tempCurrentLabel = tempLabels[tempIndex];
+				tempLeftCountArray[tempCurrentLabel] += tempWeights[tempIndex];
+				tempRightCountArray[tempCurrentLabel] -= tempWeights[tempIndex];
+			} // Of if
 
-			// Step 4.3 Left leaf.
+			// Step 3.2 Some attribute values are identical, ignore them.
+			tempCurrentValue = tempNextValue;
+			if (tempHasZeros && (i + 1 == tempNumNegatives)) {
+				tempNextValue = 0;
+			} else {
+				tempNextValue = tempColumn[tempNonZeroIndices[tempNonZeroPosition]];
+			} // Of if
+			if (tempCurrentValue == tempNextValue) {
+				continue;
+			} // Of if
+
+			// Missing values are sorted to the end, and they never go left.
+			if (Double.isNaN(tempNextValue)) {
+				break;
+			} // Of if
+			tempCut = (tempCurrentValue + tempNextValue) / 2;
+			if (StepCounter.COUNT_STEPS) {
+				tempSteps += 2 * tempNumLabels;
+			} // Of if
+
+			// Step 3.3 Left leaf.
 			double tempLeftMaxCorrect = 0;
 			int tempLeftBestLabel = 0;
-			for (int j = 0; j < tempLabelCountMatrix[0].length; j++) {
-				Common.runSteps ++;
-				if (tempLeftMaxCorrect < tempLabelCountMatrix[0][j]) {
-					tempLeftMaxCorrect = tempLabelCountMatrix[0][j];
+			for (int j = 0; j < tempNumLabels; j++) {
+				if (tempLeftMaxCorrect < tempLeftCountArray[j]) {
+					tempLeftMaxCorrect = tempLeftCountArray[j];
 					tempLeftBestLabel = j;
 				} // Of if
-			} // Of for i
+			} // Of for j
 
-			// Step 4.4 Right leaf.
+			// Step 3.4 Right leaf.
 			double tempRightMaxCorrect = 0;
 			int tempRightBestLabel = 0;
-			for (int j = 0; j < tempLabelCountMatrix[1].length; j++) {
-				Common.runSteps ++;
-				if (tempRightMaxCorrect < tempLabelCountMatrix[1][j]) {
-					tempRightMaxCorrect = tempLabelCountMatrix[1][j];
+			for (int j = 0; j < tempNumLabels; j++) {
+				if (tempRightMaxCorrect < tempRightCountArray[j]) {
+					tempRightMaxCorrect = tempRightCountArray[j];
 					tempRightBestLabel = j;
 				} // Of if
-			} // Of for i
+			} // Of for j
 
-			// Step 4.5 Compare with the current best.
+			// Step 3.5 Compare with the current best.
 			if (tempMaxCorrect < tempLeftMaxCorrect + tempRightMaxCorrect) {
-				Common.runSteps ++;
+				if (StepCounter.COUNT_STEPS) {
+					tempSteps++;
+				} // Of if
 				tempMaxCorrect = tempLeftMaxCorrect + tempRightMaxCorrect;
 				bestCut = tempCut;
 				leftLeafLabel = tempLeftBestLabel;
 				rightLeafLabel = tempRightBestLabel;
 			} // Of if
 		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(tempSteps);
+		} // Of if
 
-		SimpleTools.variableTrackingOutput("Attribute = " + selectedAttribute + ", cut = " + bestCut
-				+ ", leftLeafLabel = " + leftLeafLabel + ", rightLeafLabel = " + rightLeafLabel);
-	}// Of train
+		return tempMaxCorrect;
+	}// Of searchBestSparseCut
 
 	/**
 	 ****************** 
-	 * Classify an instance.
+	 * Classify an instance according to its value on the selected attribute.
 	 * 
-	 * @param paraInstance
-	 *            The given instance.
+	 * @param paraValue
+	 *            The value of the instance on the selected attribute.
 	 * @return Predicted label.
 	 ****************** 
 	 */
-	public int classify(Instance paraInstance) {
+	public int classify(double paraValue) {
 		int resultLabel = -1;
-		if (paraInstance.value(selectedAttribute) < bestCut) {
+		if (paraValue < bestCut) {
 			resultLabel = leftLeafLabel;
 		} else {
 			resultLabel = rightLeafLabel;
@@ -2,10 +2,13 @@ package algorithm;
 
 import java.io.FileReader;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-import common.Common;
+import common.StepCounter;
 import common.SimpleTools;
+import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.Utils;
 
 /**
  * Weighted instances. There is a weight on each instance. <br>
@@ -31,6 +34,70 @@ public class WeightedInstances extends Instances {
 	 */
 	private double[] weights;
 
+	/**
+	 * The step counter of the run. It is initialized before the constructors
+	 * run, since they count steps.
+	 */
+	private StepCounter stepCounter = new StepCounter();
+
+	/**
+	 * The values of conditional attributes stored column by column, i.e.,
+	 * columns[a][i] is the value of the ith instance on attribute a. They are
+	 * copied from instances once, so that hot loops scan primitive arrays.
+	 */
+	private double[][] columns;
+
+	/**
+	 * The class labels of instances.
+	 */
+	private int[] labels;
+
+	/**
+	 * The indices of instances sorted by each conditional attribute. A row is
+	 * built the first time the attribute is used. Attribute values never change
+	 * between rounds, so all rounds share the same rows. Rows are published
+	 * with compareAndSet() instead of a lock, so that threads build rows of
+	 * different attributes at the same time.
+	 */
+	private AtomicReferenceArray<int[]> sortedIndicesMatrix;
+
+	/**
+	 * The maximal number of bins for each attribute, so that a bin index fits
+	 * in a byte.
+	 */
+	public static final int MAX_NUM_BINS = 256;
+
+	/**
+	 * The quantized conditional attributes. An element is built the first time
+	 * the attribute is used, and published in the same way as sorted indices.
+	 */
+	private AtomicReferenceArray<QuantizedColumn> quantizedColumns;
+
+	/**
+	 * An attribute is sparse if the fraction of its non-zero values is at most
+	 * this. Missing values are non-zero.
+	 */
+	public static final double MAX_SPARSE_DENSITY = 0.5;
+
+	/**
+	 * The number of non-zero values of each conditional attribute.
+	 */
+	private int[] numNonZerosArray;
+
+	/**
+	 * The sparse columns. Each row has the indices of instances with non-zero
+	 * values on a sparse attribute, sorted in ascending order of the values,
+	 * with missing values at the end. Instances with 0 are implicit. A row is
+	 * built the first time the attribute is used, and published in the same
+	 * way as sorted indices.
+	 */
+	private AtomicReferenceArray<int[]> nonZeroIndicesMatrix;
+
+	/**
+	 * The sum of weights of each class, kept with the weights.
+	 */
+	private double[] classWeights;
+
 	/**
 	 ****************** 
 	 * The first constructor.
@@ -41,16 +108,7 @@ public class WeightedInstances extends Instances {
 	 */
 	public WeightedInstances(FileReader paraFileReader) throws Exception {
 		super(paraFileReader);
-		setClassIndex(numAttributes() - 1);
-
-		// Initialize weights
-		weights = new double[numInstances()];
-		double tempAverage = 1.0 / numInstances();
-		for (int i = 0; i < weights.length; i++) {
-			Common.runSteps ++;
-			weights[i] = tempAverage;
-		} // Of for i
-		SimpleTools.variableTrackingOutput("Instances weights are: " + Arrays.toString(weights));
+		initialize();
 	} // Of the first constructor
 
 	/**
@@ -63,17 +121,99 @@ public class WeightedInstances extends Instances {
 	 */
 	public WeightedInstances(Instances paraInstances) {
 		super(paraInstances);
+		initialize();
+	} // Of the second constructor
+
+	/**
+	 ****************** 
+	 * The third constructor. The column store is shared with the given
+	 * arrays, e.g., those of cached data, instead of copied. No row is kept,
+	 * so that the instances need not be built at all. Only numInstances() and
+	 * the attributes are available from the Instances interface.
+	 * 
+	 * @param paraHeader
+	 *            The attributes of the instances. Its rows, if any, are not
+	 *            used.
+	 * @param paraColumns
+	 *            The values of the instances indexed by (attribute,
+	 *            instance). They should not be changed.
+	 * @param paraLabels
+	 *            The class labels of the instances.
+	 * @see CachedData#getColumns()
+	 ****************** 
+	 */
+	public WeightedInstances(Instances paraHeader, double[][] paraColumns, int[] paraLabels) {
+		super(paraHeader, 0);
+		columns = paraColumns;
+		labels = paraLabels;
+		initialize();
+	} // Of the third constructor
+
+	/**
+	 ****************** 
+	 * Initialize the class index, weights and the column store. Called by
+	 * constructors.
+	 ****************** 
+	 */
+	private void initialize() {
 		setClassIndex(numAttributes() - 1);
+		int tempNumConditions = numAttributes() - 1;
+		int tempNumInstances = numInstances();
 
-		// Initialize weights
-		weights = new double[numInstances()];
-		double tempAverage = 1.0 / numInstances();
-		for (int i = 0; i < weights.length; i++) {
-			Common.runSteps ++;
-			weights[i] = tempAverage;
+		// Step 1. Copy values to the column store, unless already copied.
+		if (columns == null) {
+			columns = new double[tempNumConditions][tempNumInstances];
+			labels = new int[tempNumInstances];
+			for (int i = 0; i < tempNumInstances; i++) {
+				Instance tempInstance = instance(i);
+				for (int j = 0; j < tempNumConditions; j++) {
+					columns[j][i] = tempInstance.value(j);
+				} // Of for j
+				labels[i] = (int) tempInstance.classValue();
+			} // Of for i
+		} // Of if
+
+		// Step 2. Count non-zero values to find sparse attributes.
+		numNonZerosArray = new int[tempNumConditions];
+		for (int i = 0; i < tempNumConditions; i++) {
+			double[] tempColumn = columns[i];
+			for (int j = 0; j < tempNumInstances; j++) {
+				if (tempColumn[j] != 0) {
+					numNonZerosArray[i]++;
+				} // Of if
+			} // Of for j
 		} // Of for i
-		SimpleTools.variableTrackingOutput("Instances weights are: " + Arrays.toString(weights));
-	} // Of the second constructor
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(2L * tempNumInstances * tempNumConditions);
+		} // Of if
+
+		// Step 3. Initialize weights.
+		weights = new double[tempNumInstances];
+		classWeights = new double[numClasses()];
+		resetWeights();
+
+		// Step 4. Derived structures are built when required.
+		sortedIndicesMatrix = new AtomicReferenceArray<int[]>(tempNumConditions);
+		nonZeroIndicesMatrix = new AtomicReferenceArray<int[]>(tempNumConditions);
+		quantizedColumns = new AtomicReferenceArray<QuantizedColumn>(tempNumConditions);
+	} // Of initialize
+
+	/**
+	 ****************** 
+	 * Getter. It is the length of the column store, since rows are not kept
+	 * by the third constructor.
+	 * 
+	 * @return The number of instances.
+	 ****************** 
+	 */
+	public int numInstances() {
+		if (labels == null) {
+			// Called before the column store is ready.
+			return super.numInstances();
+		} // Of if
+
+		return labels.length;
+	} // Of numInstances
 
 	/**
 	 ****************** 
@@ -88,6 +228,343 @@ public class WeightedInstances extends Instances {
 		return weights[paraIndex];
 	} // Of getWeight
 
+	/**
+	 ****************** 
+	 * Getter. The array is shared, and should not be changed by the caller.
+	 * 
+	 * @return The weights of all instances.
+	 ****************** 
+	 */
+	public double[] getWeights() {
+		return weights;
+	} // Of getWeights
+
+	/**
+	 ****************** 
+	 * Getter.
+	 * 
+	 * @return The step counter of the run.
+	 ****************** 
+	 */
+	public StepCounter getStepCounter() {
+		return stepCounter;
+	} // Of getStepCounter
+
+	/**
+	 ****************** 
+	 * Setter. The steps counted so far are moved to the given counter. It
+	 * should be called before classifiers are built on the instances.
+	 * 
+	 * @param paraStepCounter
+	 *            The step counter of the run.
+	 ****************** 
+	 */
+	public void setStepCounter(StepCounter paraStepCounter) {
+		if (paraStepCounter == stepCounter) {
+			return;
+		} // Of if
+
+		paraStepCounter.add(stepCounter.getSteps());
+		stepCounter = paraStepCounter;
+	} // Of setStepCounter
+
+	/**
+	 ****************** 
+	 * Getter. The array is shared, and should not be changed by the caller.
+	 * 
+	 * @return The sum of weights of each class.
+	 ****************** 
+	 */
+	public double[] getClassWeights() {
+		return classWeights;
+	} // Of getClassWeights
+
+	/**
+	 ****************** 
+	 * Getter. The array is shared, and should not be changed by the caller.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The values of all instances on the attribute.
+	 ****************** 
+	 */
+	public double[] getColumn(int paraAttribute) {
+		return columns[paraAttribute];
+	} // Of getColumn
+
+	/**
+	 ****************** 
+	 * Getter. The arrays are shared, and should not be changed by the caller.
+	 * 
+	 * @return The column store, indexed by (attribute, instance).
+	 ****************** 
+	 */
+	public double[][] getColumns() {
+		return columns;
+	} // Of getColumns
+
+	/**
+	 ****************** 
+	 * Getter. The array is shared, and should not be changed by the caller.
+	 * 
+	 * @return The class labels of all instances.
+	 ****************** 
+	 */
+	public int[] getLabels() {
+		return labels;
+	} // Of getLabels
+
+	/**
+	 ****************** 
+	 * Set all weights to the same value. This is required before boosting
+	 * again on the same data.
+	 ****************** 
+	 */
+	public void resetWeights() {
+		double tempAverage = 1.0 / numInstances();
+		Arrays.fill(classWeights, 0);
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = tempAverage;
+			classWeights[labels[i]] += tempAverage;
+		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(weights.length);
+		} // Of if
+		SimpleTools.variableTrackingOutput("Instances weights are: {}", weights);
+	} // Of resetWeights
+
+	/**
+	 ****************** 
+	 * Getter. The indices are sorted in ascending order of the attribute values,
+	 * with missing values at the end. They are computed only once for each
+	 * attribute, and should not be changed by the caller. Threads may sort
+	 * different attributes at the same time. If two threads ask for the same
+	 * new attribute, both sort it and the first result is kept.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The sorted indices of instances.
+	 ****************** 
+	 */
+	public int[] getSortedIndices(int paraAttribute) {
+		int[] resultIndices = sortedIndicesMatrix.get(paraAttribute);
+		if (resultIndices != null) {
+			return resultIndices;
+		} // Of if
+
+		int[] tempSortedIndices = Utils.sort(columns[paraAttribute]);
+		if (sortedIndicesMatrix.compareAndSet(paraAttribute, null, tempSortedIndices)) {
+			if (StepCounter.COUNT_STEPS) {
+				stepCounter.add((long) (numInstances() * Math.log(numInstances()) / Math.log(2)));
+			} // Of if
+		} // Of if
+
+		return sortedIndicesMatrix.get(paraAttribute);
+	} // Of getSortedIndices
+
+	/**
+	 ****************** 
+	 * Is the attribute sparse, e.g., a one-hot one?
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return True if the fraction of non-zero values is at most
+	 *         MAX_SPARSE_DENSITY.
+	 ****************** 
+	 */
+	public boolean isSparse(int paraAttribute) {
+		return numNonZerosArray[paraAttribute] <= numInstances() * MAX_SPARSE_DENSITY;
+	} // Of isSparse
+
+	/**
+	 ****************** 
+	 * Getter. The sparse column of the attribute, i.e., the indices of
+	 * instances with non-zero values, in ascending order of the values with
+	 * missing values at the end. It is computed only once in the same way as
+	 * sorted indices, and should not be changed by the caller.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute, which should be sparse.
+	 * @return The sorted indices of instances with non-zero values.
+	 ****************** 
+	 */
+	public int[] getNonZeroIndices(int paraAttribute) {
+		int[] resultIndices = nonZeroIndicesMatrix.get(paraAttribute);
+		if (resultIndices != null) {
+			return resultIndices;
+		} // Of if
+
+		// Step 1. Gather non-zero values.
+		double[] tempColumn = columns[paraAttribute];
+		int tempNumNonZeros = numNonZerosArray[paraAttribute];
+		int[] tempIndices = new int[tempNumNonZeros];
+		double[] tempValues = new double[tempNumNonZeros];
+		int tempCount = 0;
+		for (int i = 0; i < tempColumn.length; i++) {
+			if (tempColumn[i] != 0) {
+				tempIndices[tempCount] = i;
+				tempValues[tempCount] = tempColumn[i];
+				tempCount++;
+			} // Of if
+		} // Of for i
+
+		// Step 2. Sort them.
+		int[] tempOrder = Utils.sort(tempValues);
+		int[] tempSortedIndices = new int[tempNumNonZeros];
+		for (int i = 0; i < tempNumNonZeros; i++) {
+			tempSortedIndices[i] = tempIndices[tempOrder[i]];
+		} // Of for i
+
+		// Step 3. Keep the first result.
+		if (nonZeroIndicesMatrix.compareAndSet(paraAttribute, null, tempSortedIndices)) {
+			if (StepCounter.COUNT_STEPS) {
+				stepCounter.add(tempColumn.length
+						+ (long) (tempNumNonZeros * Math.log(tempNumNonZeros + 1) / Math.log(2)));
+			} // Of if
+		} // Of if
+
+		return nonZeroIndicesMatrix.get(paraAttribute);
+	} // Of getNonZeroIndices
+
+	/**
+	 ****************** 
+	 * Getter. The attribute is quantized the first time it is requested.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The bin indices of all instances.
+	 * @see #quantize(int)
+	 ****************** 
+	 */
+	public byte[] getBinnedColumn(int paraAttribute) {
+		return getQuantizedColumn(paraAttribute).binnedColumn;
+	} // Of getBinnedColumn
+
+	/**
+	 ****************** 
+	 * Getter. The attribute is quantized the first time it is requested.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The cuts between adjacent bins. Its length is the number of bins
+	 *         minus 1.
+	 ****************** 
+	 */
+	public double[] getBinCuts(int paraAttribute) {
+		return getQuantizedColumn(paraAttribute).binCuts;
+	} // Of getBinCuts
+
+	/**
+	 ****************** 
+	 * Getter. The minimum is recorded when the attribute is quantized, so that
+	 * histogram training needs no sorted indices.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The minimal value of the attribute, NaN if all are missing.
+	 ****************** 
+	 */
+	public double getMinimum(int paraAttribute) {
+		return getQuantizedColumn(paraAttribute).minimum;
+	} // Of getMinimum
+
+	/**
+	 ****************** 
+	 * Getter. The attribute is quantized the first time it is requested. If
+	 * two threads ask for the same new attribute, both quantize it and the
+	 * first result is kept.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The quantized attribute.
+	 ****************** 
+	 */
+	private QuantizedColumn getQuantizedColumn(int paraAttribute) {
+		QuantizedColumn resultColumn = quantizedColumns.get(paraAttribute);
+		if (resultColumn == null) {
+			if (quantizedColumns.compareAndSet(paraAttribute, null, quantize(paraAttribute))) {
+				if (StepCounter.COUNT_STEPS) {
+					stepCounter.add(2L * numInstances());
+				} // Of if
+			} // Of if
+			resultColumn = quantizedColumns.get(paraAttribute);
+		} // Of if
+
+		return resultColumn;
+	} // Of getQuantizedColumn
+
+	/**
+	 ****************** 
+	 * Quantize the attribute into at most MAX_NUM_BINS quantile bins. Instances
+	 * with the same value are always in the same bin, and missing values are in
+	 * the last bin. If there are no more distinct values than MAX_NUM_BINS, each
+	 * value has its own bin. The sorted indices are dropped after quantization
+	 * unless they have been kept for other classifiers, so that each value
+	 * takes 9 bytes instead of 13 for histogram training.
+	 * 
+	 * @param paraAttribute
+	 *            The given conditional attribute.
+	 * @return The quantized attribute.
+	 ****************** 
+	 */
+	private QuantizedColumn quantize(int paraAttribute) {
+		double[] tempColumn = columns[paraAttribute];
+		int tempNumInstances = numInstances();
+		int[] tempSortedIndices = sortedIndicesMatrix.get(paraAttribute);
+		if (tempSortedIndices == null) {
+			tempSortedIndices = Utils.sort(tempColumn);
+			if (StepCounter.COUNT_STEPS) {
+				stepCounter.add(
+						(long) (tempNumInstances * Math.log(tempNumInstances) / Math.log(2)));
+			} // Of if
+		} // Of if
+
+		// Step 1. Count distinct values to decide the bin size.
+		int tempNumDistinctValues = 1;
+		for (int i = 1; i < tempNumInstances; i++) {
+			double tempValue = tempColumn[tempSortedIndices[i]];
+			if ((!Double.isNaN(tempValue)) && (tempValue != tempColumn[tempSortedIndices[i - 1]])) {
+				tempNumDistinctValues++;
+			} // Of if
+		} // Of for i
+
+		int tempBinSize = 1;
+		if (tempNumDistinctValues > MAX_NUM_BINS) {
+			tempBinSize = (tempNumInstances + MAX_NUM_BINS - 1) / MAX_NUM_BINS;
+		} // Of if
+
+		// Step 2. Assign bins in ascending order of values.
+		byte[] tempBinnedColumn = new byte[tempNumInstances];
+		double[] tempCuts = new double[MAX_NUM_BINS - 1];
+		int tempCurrentBin = 0;
+		int tempCurrentBinSize = 0;
+		double tempLastValue = Double.NaN;
+		for (int i = 0; i < tempNumInstances; i++) {
+			double tempValue = tempColumn[tempSortedIndices[i]];
+			// Open a new bin only at a new value.
+			if ((tempCurrentBinSize >= tempBinSize) && (tempCurrentBin < MAX_NUM_BINS - 1)
+					&& (!Double.isNaN(tempValue)) && (tempValue != tempLastValue)) {
+				tempCuts[tempCurrentBin] = (tempLastValue + tempValue) / 2;
+				tempCurrentBin++;
+				tempCurrentBinSize = 0;
+			} // Of if
+
+			tempBinnedColumn[tempSortedIndices[i]] = (byte) tempCurrentBin;
+			tempCurrentBinSize++;
+			tempLastValue = tempValue;
+		} // Of for i
+
+		final int tempNumBins = tempCurrentBin + 1;
+		SimpleTools.variableTrackingOutput(
+				() -> "Attribute " + paraAttribute + " is quantized into " + tempNumBins + " bins.");
+
+		// Missing values are sorted to the end.
+		double tempMinimum = (tempNumInstances == 0) ? Double.NaN
+				: tempColumn[tempSortedIndices[0]];
+		return new QuantizedColumn(tempBinnedColumn, Arrays.copyOf(tempCuts, tempCurrentBin),
+				tempMinimum);
+	} // Of quantize
+
 	/**
 	 ****************** 
 	 * Adjust the weights.
@@ -105,7 +582,6 @@ public class WeightedInstances extends Instances {
 		// Step 3. Adjust.
 		double tempWeightsSum = 0; // For normalization.
 		for (int i = 0; i < weights.length; i++) {
-			Common.runSteps ++;
 			if (paraCorrectArray[i]) {
 				weights[i] /= tempIncrease;
 			} else {
@@ -115,13 +591,55 @@ public class WeightedInstances extends Instances {
 		} // Of for i
 
 		// Step 4. Normalize.
+		Arrays.fill(classWeights, 0);
 		for (int i = 0; i < weights.length; i++) {
-			Common.runSteps ++;
 			weights[i] /= tempWeightsSum;
+			classWeights[labels[i]] += weights[i];
 		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(2L * weights.length);
+		} // Of if
 
-		SimpleTools.variableTrackingOutput(
-				"After adjusting, instances weights are: " + Arrays.toString(weights));
+		SimpleTools.variableTrackingOutput("After adjusting, instances weights are: {}", weights);
+	} // Of adjustWeights
+
+	/**
+	 ****************** 
+	 * Adjust the weights in one pass. The weights should have been normalized.
+	 * With the weighted error known in advance, the sum of adjusted weights is
+	 * computed directly, so that normalization needs no extra pass.
+	 * 
+	 * @param paraCorrectArray
+	 *            Indicate which instances have been correctly classified.
+	 * @param paraAlpha
+	 *            The weight of the last classifier.
+	 * @param paraError
+	 *            The weight of incorrectly classified instances, which is not
+	 *            adjusted.
+	 ****************** 
+	 */
+	public void adjustWeights(boolean[] paraCorrectArray, double paraAlpha, double paraError) {
+		// Step 1. The sum after adjusting.
+		double tempIncrease = Math.exp(paraAlpha);
+		double tempWeightsSum = (1 - paraError) / tempIncrease + paraError * tempIncrease;
+
+		// Step 2. Adjust and normalize.
+		double tempCorrectFactor = 1 / (tempIncrease * tempWeightsSum);
+		double tempIncorrectFactor = tempIncrease / tempWeightsSum;
+		Arrays.fill(classWeights, 0);
+		for (int i = 0; i < weights.length; i++) {
+			if (paraCorrectArray[i]) {
+				weights[i] *= tempCorrectFactor;
+			} else {
+				weights[i] *= tempIncorrectFactor;
+			} // Of if
+			classWeights[labels[i]] += weights[i];
+		} // Of for i
+		if (StepCounter.COUNT_STEPS) {
+			stepCounter.add(weights.length);
+		} // Of if
+
+		SimpleTools.variableTrackingOutput("After adjusting, instances weights are: {}", weights);
 	} // Of adjustWeights
 
 	/**
@@ -150,10 +668,13 @@ public class WeightedInstances extends Instances {
 	 ****************** 
 	 */
 	public String toString() {
+		// Only the attributes are shown if rows are not kept.
+		String tempDataString = (super.numInstances() == numInstances()) ? super.toString()
+				: new Instances(this, 0).toString();
 		String resultString = "I am a weighted Instances object.\r\n" + "I have " + numInstances()
 				+ " instances and " + (numAttributes() - 1) + " conditional attributes.\r\n"
 				+ "My weights are: " + Arrays.toString(weights) + "\r\n" + "My data are: \r\n"
-				+ super.toString();
+				+ tempDataString;
 
 		return resultString;
 	} // Of toString
@@ -183,4 +704,35 @@ public class WeightedInstances extends Instances {
 		tempWeightedInstances.adjustWeightsTest();
 	} // Of main
 
+	/**
+	 ************************* 
+	 * A quantized conditional attribute. The arrays are built together and
+	 * never changed, so that they are published as a whole.
+	 ************************* 
+	 */
+	private static class QuantizedColumn {
+		/**
+		 * The bin indices of all instances, to be read as unsigned bytes.
+		 */
+		final byte[] binnedColumn;
+
+		/**
+		 * The cuts between adjacent bins. Values less than binCuts[b] fall in
+		 * bin b or a smaller one.
+		 */
+		final double[] binCuts;
+
+		/**
+		 * The minimal value, NaN if all values are missing.
+		 */
+		final double minimum;
+
+		public QuantizedColumn(byte[] paraBinnedColumn, double[] paraBinCuts,
+				double paraMinimum) {
+			binnedColumn = paraBinnedColumn;
+			binCuts = paraBinCuts;
+			minimum = paraMinimum;
+		}// Of the constructor
+	}// Of class QuantizedColumn
+
 } // Of class WeightedInstances
@@ -0,0 +1,377 @@
+package benchmark;
+
+import java.io.FileReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+import algorithm.BayesClassifier;
+import algorithm.Booster;
+import algorithm.CompactedBooster;
+import algorithm.CompiledBooster;
+import algorithm.GeneratedBooster;
+import algorithm.GaussianClassifier;
+import algorithm.StumpClassifier;
+import algorithm.WeightedInstances;
+import com.sun.management.ThreadMXBean;
+import common.Common;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+/**
+ * Benchmarks of the algorithm package. Each operation is run a number of
+ * times for warming up the JIT, and then measured with a fixed random seed, so
+ * that the results before and after a change are comparable. Both the bundled
+ * data sets and synthetic data sets with any number of instances are
+ * supported.<br>
+ * Usage: java benchmark.AlgorithmBenchmark [numInstances ...]. For example,
+ * "100000 1000000 10000000" runs also on synthetic data sets with 10^5, 10^6
+ * and 10^7 instances. The last one requires about 8G heap (-Xmx8g).<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class AlgorithmBenchmark extends Object {
+
+	/**
+	 * The bundled data sets.
+	 */
+	public static final String[] BUNDLED_FILENAMES = { "src/data/iris.arff", "src/data/wine.arff",
+			"src/data/wdbc_norm_ex.arff", "src/data/credit6000_126.arff" };
+
+	/**
+	 * The number of runs before measuring.
+	 */
+	public static int warmupIterations = 5;
+
+	/**
+	 * The number of measured runs.
+	 */
+	public static int measuredIterations = 10;
+
+	/**
+	 * The number of base classifiers for Booster.train().
+	 */
+	public static int numBaseClassifiers = 50;
+
+	/**
+	 * The random seed set before each run.
+	 */
+	public static final long SEED = 20201017L;
+
+	/**
+	 * The number of conditional attributes of synthetic data.
+	 */
+	public static final int SYNTHETIC_NUM_CONDITIONS = 8;
+
+	/**
+	 * The number of classes of synthetic data.
+	 */
+	public static final int SYNTHETIC_NUM_CLASSES = 2;
+
+	/**
+	 ****************** 
+	 * Measure an operation.
+	 * 
+	 * @param paraName
+	 *            The name of the operation.
+	 * @param paraDataName
+	 *            The name of the data set.
+	 * @param paraNumInstances
+	 *            The number of instances, to compute the time for each
+	 *            instance.
+	 * @param paraOperation
+	 *            The operation.
+	 * @return The average time of each run in nanoseconds.
+	 ****************** 
+	 */
+	public static double measure(String paraName, String paraDataName, int paraNumInstances,
+			Runnable paraOperation) {
+		// Step 1. Warm up.
+		for (int i = 0; i < warmupIterations; i++) {
+			Common.random.setSeed(SEED + i);
+			paraOperation.run();
+		} // Of for i
+
+		// Step 2. Measure.
+		long tempMin = Long.MAX_VALUE;
+		long tempSum = 0;
+		for (int i = 0; i < measuredIterations; i++) {
+			Common.random.setSeed(SEED + i);
+			long tempStart = System.nanoTime();
+			paraOperation.run();
+			long tempTime = System.nanoTime() - tempStart;
+			tempSum += tempTime;
+			if (tempMin > tempTime) {
+				tempMin = tempTime;
+			} // Of if
+		} // Of for i
+
+		double resultAverage = (double) tempSum / measuredIterations;
+		System.out.printf("%-28s %-16s %10d %14.3f %14.3f %12.2f%n", paraName, paraDataName,
+				paraNumInstances, resultAverage / 1e6, tempMin / 1e6,
+				resultAverage / paraNumInstances);
+		return resultAverage;
+	}// Of measure
+
+	/**
+	 ****************** 
+	 * Measure the bytes allocated by an operation on the current thread.
+	 * 
+	 * @param paraName
+	 *            The name of the operation.
+	 * @param paraDataName
+	 *            The name of the data set.
+	 * @param paraNumCalls
+	 *            The number of calls in the operation.
+	 * @param paraOperation
+	 *            The operation.
+	 * @return The bytes allocated by each call.
+	 ****************** 
+	 */
+	public static double measureAllocation(String paraName, String paraDataName,
+			int paraNumCalls, Runnable paraOperation) {
+		ThreadMXBean tempBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long tempThreadId = Thread.currentThread().getId();
+
+		// Warm up, so that the JIT may remove allocations as it does in
+		// services.
+		for (int i = 0; i < warmupIterations; i++) {
+			paraOperation.run();
+		} // Of for i
+
+		long tempBefore = tempBean.getThreadAllocatedBytes(tempThreadId);
+		for (int i = 0; i < measuredIterations; i++) {
+			paraOperation.run();
+		} // Of for i
+		long tempAllocated = tempBean.getThreadAllocatedBytes(tempThreadId) - tempBefore;
+
+		double resultBytes = (double) tempAllocated / ((long) paraNumCalls * measuredIterations);
+		System.out.printf("%-28s %-16s %10d %14.2f bytes/call%n", paraName, paraDataName,
+				paraNumCalls, resultBytes);
+		return resultBytes;
+	}// Of measureAllocation
+
+	/**
+	 ****************** 
+	 * Run all benchmarks on a data set.
+	 * 
+	 * @param paraDataName
+	 *            The name of the data set.
+	 * @param paraData
+	 *            The data set. The last attribute is the class.
+	 ****************** 
+	 */
+	public static void benchmarkData(String paraDataName, Instances paraData) {
+		paraData.setClassIndex(paraData.numAttributes() - 1);
+		final int tempNumInstances = paraData.numInstances();
+		final WeightedInstances tempWeightedInstances = new WeightedInstances(paraData);
+
+		// Step 1. Base classifiers. The presorted indices are built in warming up,
+		// as in the rounds of boosting.
+		measure("StumpClassifier.train", paraDataName, tempNumInstances, () -> {
+			new StumpClassifier(tempWeightedInstances).train();
+		});
+		measure("BayesClassifier.train", paraDataName, tempNumInstances, () -> {
+			new BayesClassifier(tempWeightedInstances).train();
+		});
+		measure("GaussianClassifier.train", paraDataName, tempNumInstances, () -> {
+			new GaussianClassifier(tempWeightedInstances).train();
+		});
+
+		// Step 2. Adjust weights with a fixed correctness array.
+		final boolean[] tempCorrectArray = new boolean[tempNumInstances];
+		Random tempRandom = new Random(SEED);
+		for (int i = 0; i < tempNumInstances; i++) {
+			tempCorrectArray[i] = tempRandom.nextDouble() < 0.7;
+		} // Of for i
+		measure("WeightedInstances.adjust", paraDataName, tempNumInstances, () -> {
+			tempWeightedInstances.adjustWeights(tempCorrectArray, 0.3);
+		});
+
+		// Step 3. The booster.
+		final Booster[] tempBoosterHolder = new Booster[1];
+		measure("Booster.train(" + numBaseClassifiers + ")", paraDataName, tempNumInstances,
+				() -> {
+					Booster tempBooster = new Booster(paraData);
+					tempBooster.setNumBaseClassifiers(numBaseClassifiers);
+					tempBooster.setBaseClassifierType(Booster.STUMP_CLASSIFIER);
+					tempBooster.train();
+					tempBoosterHolder[0] = tempBooster;
+				});
+
+		final int[] tempChecksum = new int[1];
+		measure("Booster.classify", paraDataName, tempNumInstances, () -> {
+			Booster tempBooster = tempBoosterHolder[0];
+			for (int i = 0; i < tempNumInstances; i++) {
+				tempChecksum[0] += tempBooster.classify(paraData.instance(i));
+			} // Of for i
+		});
+
+		measure("Booster.classifyBatch", paraDataName, tempNumInstances, () -> {
+			int[] tempLabels = tempBoosterHolder[0].classifyBatch(paraData);
+			tempChecksum[0] += tempLabels[tempNumInstances - 1];
+		});
+
+		final CompiledBooster tempCompiled = tempBoosterHolder[0].compile();
+		final double[][] tempRows = new double[tempNumInstances][];
+		for (int i = 0; i < tempNumInstances; i++) {
+			tempRows[i] = paraData.instance(i).toDoubleArray();
+		} // Of for i
+		measure("CompiledBooster.classify", paraDataName, tempNumInstances, () -> {
+			for (int i = 0; i < tempNumInstances; i++) {
+				tempChecksum[0] += tempCompiled.classify(tempRows[i]);
+			} // Of for i
+		});
+
+		final CompactedBooster tempCompacted = tempBoosterHolder[0].compact();
+		measure("CompactedBooster.classify", paraDataName, tempNumInstances, () -> {
+			for (int i = 0; i < tempNumInstances; i++) {
+				tempChecksum[0] += tempCompacted.classify(tempRows[i]);
+			} // Of for i
+		});
+
+		final GeneratedBooster tempGenerated = tempBoosterHolder[0].generate();
+		if (!tempGenerated.isGenerated()) {
+			System.out.println("  " + tempGenerated);
+		} // Of if
+		measure("GeneratedBooster.classify", paraDataName, tempNumInstances, () -> {
+			for (int i = 0; i < tempNumInstances; i++) {
+				tempChecksum[0] += tempGenerated.classify(tempRows[i]);
+			} // Of for i
+		});
+		System.out.println("  (checksum " + tempChecksum[0] + ")");
+
+		// Step 4. Allocation of each call.
+		final Booster tempBooster = tempBoosterHolder[0];
+		final double[] tempVotes = new double[tempCompiled.getNumClasses()];
+		final double[] tempMargins = new double[tempCompiled.getNumClasses()];
+		final double[] tempProbabilities = new double[tempCompiled.getNumClasses()];
+		measureAllocation("Booster.classify", paraDataName, tempNumInstances, () -> {
+			for (int i = 0; i < tempNumInstances; i++) {
+				tempChecksum[0] += tempBooster.classify(paraData.instance(i));
+			} // Of for i
+		});
+		measureAllocation("Booster.score", paraDataName, tempNumInstances, () -> {
+			for (int i = 0; i < tempNumInstances; i++) {
+				tempChecksum[0] += tempBooster.score(paraData.instance(i), tempVotes, tempMargins,
+						tempProbabilities);
+			} // Of for i
+		});
+		measureAllocation("CompiledBooster.score", paraDataName, tempNumInstances, () -> {
+			for (int i = 0; i < tempNumInstances; i++) {
+				tempChecksum[0] += tempCompiled.score(tempRows[i], tempVotes, tempMargins,
+						tempProbabilities);
+			} // Of for i
+		});
+	}// Of benchmarkData
+
+	/**
+	 ****************** 
+	 * Generate a synthetic data set. Conditional attributes are uniform in [0,
+	 * 1), and the class depends on some of them with noise, so that there is
+	 * something to learn.
+	 * 
+	 * @param paraNumInstances
+	 *            The number of instances.
+	 * @param paraNumConditions
+	 *            The number of conditional attributes.
+	 * @param paraNumClasses
+	 *            The number of classes.
+	 * @param paraSeed
+	 *            The random seed.
+	 * @return The data set, where the last attribute is the class.
+	 ****************** 
+	 */
+	public static Instances generateSyntheticData(int paraNumInstances, int paraNumConditions,
+			int paraNumClasses, long paraSeed) {
+		// Step 1. The header.
+		ArrayList<Attribute> tempAttributes = new ArrayList<Attribute>();
+		for (int i = 0; i < paraNumConditions; i++) {
+			tempAttributes.add(new Attribute("a" + i));
+		} // Of for i
+		ArrayList<String> tempClassValues = new ArrayList<String>();
+		for (int i = 0; i < paraNumClasses; i++) {
+			tempClassValues.add("c" + i);
+		} // Of for i
+		tempAttributes.add(new Attribute("class", tempClassValues));
+
+		Instances resultData = new Instances("synthetic" + paraNumInstances, tempAttributes,
+				paraNumInstances);
+		resultData.setClassIndex(paraNumConditions);
+
+		// Step 2. The instances.
+		Random tempRandom = new Random(paraSeed);
+		for (int i = 0; i < paraNumInstances; i++) {
+			double[] tempValues = new double[paraNumConditions + 1];
+			double tempScore = 0;
+			for (int j = 0; j < paraNumConditions; j++) {
+				tempValues[j] = tempRandom.nextDouble();
+				if (j % 2 == 0) {
+					tempScore += tempValues[j];
+				} // Of if
+			} // Of for j
+			tempScore = tempScore / ((paraNumConditions + 1) / 2) + 0.2 * tempRandom.nextGaussian();
+			int tempLabel = (int) (tempScore * paraNumClasses);
+			tempLabel = Math.max(0, Math.min(paraNumClasses - 1, tempLabel));
+			tempValues[paraNumConditions] = tempLabel;
+			resultData.add(new DenseInstance(1.0, tempValues));
+		} // Of for i
+
+		return resultData;
+	}// Of generateSyntheticData
+
+	/**
+	 ****************** 
+	 * The entrance.
+	 * 
+	 * @param args
+	 *            The sizes of synthetic data sets. If not provided, only bundled
+	 *            data sets and 10^5 instances are used.
+	 ****************** 
+	 */
+	public static void main(String args[]) {
+		System.out.printf("%-28s %-16s %10s %14s %14s %12s%n", "Operation", "Data", "Instances",
+				"Average(ms)", "Min(ms)", "ns/instance");
+
+		// Step 1. Bundled data sets.
+		for (int i = 0; i < BUNDLED_FILENAMES.length; i++) {
+			Instances tempData = null;
+			try {
+				FileReader tempFileReader = new FileReader(BUNDLED_FILENAMES[i]);
+				tempData = new Instances(tempFileReader);
+				tempFileReader.close();
+			} catch (Exception ee) {
+				System.out.println("Cannot read the file: " + BUNDLED_FILENAMES[i] + "\r\n" + ee);
+				continue;
+			} // Of try
+
+			benchmarkData(tempData.relationName(), tempData);
+		} // Of for i
+
+		// Step 2. Synthetic data sets. They are large, so fewer runs are needed.
+		int[] tempSizes = { 100000 };
+		if (args.length > 0) {
+			tempSizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				tempSizes[i] = Integer.parseInt(args[i]);
+			} // Of for i
+		} // Of if
+
+		warmupIterations = 2;
+		measuredIterations = 3;
+		numBaseClassifiers = 20;
+		for (int i = 0; i < tempSizes.length; i++) {
+			Instances tempData = generateSyntheticData(tempSizes[i], SYNTHETIC_NUM_CONDITIONS,
+					SYNTHETIC_NUM_CLASSES, SEED);
+			benchmarkData("synthetic", tempData);
+		} // Of for i
+	}// Of main
+}// Of class AlgorithmBenchmark
@@ -37,11 +37,6 @@ public class Common extends Object {
 	 * The run times the program/subroutine.
 	 */
 	public static long runtimes;
-	
-	/**
-	 * The number of steps for running.
-	 */
-	public static long runSteps = 0;
 
 	/**
 	 * Help the relative directory. In this way all file paths are correct while
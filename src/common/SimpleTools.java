@@ -3,6 +3,7 @@ package common;
 
 import java.io.*;
 import java.util.*;
+import java.util.function.Supplier;
 
 import weka.core.Instance;
 import weka.core.Instances;
@@ -65,6 +66,57 @@ public class SimpleTools extends Object {
 		} // Of if
 	}// Of processTrackingOutput
 
+	/**
+	 ****************** 
+	 * Output for process tracking. The string is built only if the process is
+	 * tracked.
+	 * 
+	 * @param paraSupplier
+	 *            Supply the string for display.
+	 ****************** 
+	 */
+	public static void processTrackingOutput(Supplier<String> paraSupplier) {
+		if (processTracking) {
+			System.out.print(paraSupplier.get());
+		} // Of if
+	}// Of processTrackingOutput
+
+	/**
+	 ****************** 
+	 * Output for process tracking. The string is built only if the process is
+	 * tracked.
+	 * 
+	 * @param paraPattern
+	 *            The pattern for display, where "{}" is replaced by the argument.
+	 * @param paraArgument
+	 *            The argument.
+	 * @see #formatTrackingString(String, Object...)
+	 ****************** 
+	 */
+	public static void processTrackingOutput(String paraPattern, Object paraArgument) {
+		if (processTracking) {
+			System.out.print(formatTrackingString(paraPattern, paraArgument));
+		} // Of if
+	}// Of processTrackingOutput
+
+	/**
+	 ****************** 
+	 * Output for process tracking. The string is built only if the process is
+	 * tracked.
+	 * 
+	 * @param paraPattern
+	 *            The pattern for display, where each "{}" is replaced by the
+	 *            next argument.
+	 * @param paraArguments
+	 *            The arguments.
+	 ****************** 
+	 */
+	public static void processTrackingOutput(String paraPattern, Object... paraArguments) {
+		if (processTracking) {
+			System.out.print(formatTrackingString(paraPattern, paraArguments));
+		} // Of if
+	}// Of processTrackingOutput
+
 	/**
 	 ****************** 
 	 * Output for variable tracking.
@@ -79,6 +131,117 @@ public class SimpleTools extends Object {
 		} // Of if
 	}// Of variableTrackingOutput
 
+	/**
+	 ****************** 
+	 * Output for variable tracking. The string is built only if variables are
+	 * tracked.
+	 * 
+	 * @param paraSupplier
+	 *            Supply the string for display.
+	 ****************** 
+	 */
+	public static void variableTrackingOutput(Supplier<String> paraSupplier) {
+		if (variableTracking) {
+			System.out.println(paraSupplier.get());
+		} // Of if
+	}// Of variableTrackingOutput
+
+	/**
+	 ****************** 
+	 * Output for variable tracking. The string is built only if variables are
+	 * tracked. Passing an array or another object costs no allocation when
+	 * variables are not tracked.
+	 * 
+	 * @param paraPattern
+	 *            The pattern for display, where "{}" is replaced by the argument.
+	 * @param paraArgument
+	 *            The argument.
+	 * @see #formatTrackingString(String, Object...)
+	 ****************** 
+	 */
+	public static void variableTrackingOutput(String paraPattern, Object paraArgument) {
+		if (variableTracking) {
+			System.out.println(formatTrackingString(paraPattern, paraArgument));
+		} // Of if
+	}// Of variableTrackingOutput
+
+	/**
+	 ****************** 
+	 * Output for variable tracking. The string is built only if variables are
+	 * tracked.
+	 * 
+	 * @param paraPattern
+	 *            The pattern for display, where each "{}" is replaced by the
+	 *            next argument.
+	 * @param paraArguments
+	 *            The arguments.
+	 ****************** 
+	 */
+	public static void variableTrackingOutput(String paraPattern, Object... paraArguments) {
+		if (variableTracking) {
+			System.out.println(formatTrackingString(paraPattern, paraArguments));
+		} // Of if
+	}// Of variableTrackingOutput
+
+	/**
+	 ****************** 
+	 * Replace each "{}" in the pattern by the next argument. Arrays are
+	 * converted with their elements. Extra arguments are ignored, and extra
+	 * "{}" are kept.<br>
+	 * For example, ("Weights: {}, sum = {}", {0.5, 0.5}, 1.0) is converted into
+	 * "Weights: [0.5, 0.5], sum = 1.0".
+	 * 
+	 * @param paraPattern
+	 *            The pattern.
+	 * @param paraArguments
+	 *            The arguments.
+	 * @return The formatted string.
+	 ****************** 
+	 */
+	public static String formatTrackingString(String paraPattern, Object... paraArguments) {
+		StringBuilder resultBuilder = new StringBuilder();
+		int tempStart = 0;
+		for (int i = 0; i < paraArguments.length; i++) {
+			int tempPosition = paraPattern.indexOf("{}", tempStart);
+			if (tempPosition < 0) {
+				break;
+			} // Of if
+
+			resultBuilder.append(paraPattern, tempStart, tempPosition);
+			resultBuilder.append(objectToString(paraArguments[i]));
+			tempStart = tempPosition + 2;
+		} // Of for i
+		resultBuilder.append(paraPattern, tempStart, paraPattern.length());
+
+		return resultBuilder.toString();
+	}// Of formatTrackingString
+
+	/**
+	 ****************** 
+	 * Convert an object into a string. Arrays are displayed with their
+	 * elements.
+	 * 
+	 * @param paraObject
+	 *            The given object.
+	 * @return The string.
+	 ****************** 
+	 */
+	private static String objectToString(Object paraObject) {
+		if (paraObject instanceof double[]) {
+			return Arrays.toString((double[]) paraObject);
+		} else if (paraObject instanceof int[]) {
+			return Arrays.toString((int[]) paraObject);
+		} else if (paraObject instanceof long[]) {
+			return Arrays.toString((long[]) paraObject);
+		} else if (paraObject instanceof boolean[]) {
+			return Arrays.toString((boolean[]) paraObject);
+		} else if (paraObject instanceof Object[]) {
+			return Arrays.deepToString((Object[]) paraObject);
+		} // Of if
+
+		return String.valueOf(paraObject);
+	}// Of objectToString
+
 	/**
 	 ********************************** 
 	 * Console output.
@@ -105,14 +268,44 @@ public class SimpleTools extends Object {
 	 */
 	public static Instances[] splitInTwo(Instances paraOringinalData, double paraFraction) {
 		// Step 1. Initialize.
-		int tempNumInstances = paraOringinalData.numInstances();
 		Instances[] resultInstancesArray = new Instances[2];
 		resultInstancesArray[0] = new Instances(paraOringinalData);
 		resultInstancesArray[1] = new Instances(paraOringinalData);
 
 		// Step 2. Indices for the two subsets.
-		int tempFirstSetSize = (int) (tempNumInstances * paraFraction);
-		int[] tempIndices = generateRandomSequence(paraOringinalData.numInstances());
+		int[][] tempIndicesArray = splitIndicesInTwo(paraOringinalData.numInstances(),
+				paraFraction);
+		int[] tempFirstSetIndices = tempIndicesArray[0];
+		int[] tempSecondSetIndices = tempIndicesArray[1];
+
+		// Step 3. Remove redundant data.
+		for (int i = tempSecondSetIndices.length - 1; i >= 0; i--) {
+			resultInstancesArray[0].delete(tempSecondSetIndices[i]);
+		} // Of for i
+
+		for (int i = tempFirstSetIndices.length - 1; i >= 0; i--) {
+			resultInstancesArray[1].delete(tempFirstSetIndices[i]);
+		} // Of for i
+
+		return resultInstancesArray;
+	}// Of splitInTwo
+
+	/**
+	 ********************************** 
+	 * Split the indices of a data set in two, e.g., for data stored by columns.
+	 * The subsets are the same as splitInTwo() for the same random state.
+	 * 
+	 * @param paraNumInstances
+	 *            the number of instances.
+	 * @param paraFraction
+	 *            The training set fraction.
+	 * @return The indices of the first and the second subsets, each in
+	 *         ascending order.
+	 ********************************** 
+	 */
+	public static int[][] splitIndicesInTwo(int paraNumInstances, double paraFraction) {
+		int tempFirstSetSize = (int) (paraNumInstances * paraFraction);
+		int[] tempIndices = generateRandomSequence(paraNumInstances);
 
 		int[] tempFirstSetIndices = new int[tempFirstSetSize];
 		for (int i = 0; i < tempFirstSetIndices.length; i++) {
@@ -121,24 +314,16 @@ public class SimpleTools extends Object {
 		Arrays.sort(tempFirstSetIndices);
 		variableTrackingOutput("The first set indices: " + Arrays.toString(tempFirstSetIndices));
 
-		int[] tempSecondSetIndices = new int[tempNumInstances - tempFirstSetSize];
+		int[] tempSecondSetIndices = new int[paraNumInstances - tempFirstSetSize];
 		for (int i = 0; i < tempSecondSetIndices.length; i++) {
 			tempSecondSetIndices[i] = tempIndices[tempFirstSetSize + i];
 		} // Of for i
 		Arrays.sort(tempSecondSetIndices);
 		variableTrackingOutput("The second set indices: " + Arrays.toString(tempSecondSetIndices));
 
-		// Step 3. Remove redundant data.
-		for (int i = tempSecondSetIndices.length - 1; i >= 0; i--) {
-			resultInstancesArray[0].delete(tempSecondSetIndices[i]);
-		} // Of for i
-
-		for (int i = tempFirstSetIndices.length - 1; i >= 0; i--) {
-			resultInstancesArray[1].delete(tempFirstSetIndices[i]);
-		} // Of for i
-
-		return resultInstancesArray;
-	}// Of splitInTwo
+		int[][] resultIndicesArray = { tempFirstSetIndices, tempSecondSetIndices };
+		return resultIndicesArray;
+	}// Of splitIndicesInTwo
 
 	/**
 	 *********************************** 
@@ -1965,7 +2150,6 @@ public class SimpleTools extends Object {
 	 ********************************** 
 	 */
 	public static boolean isSubset(int[] paraFirstSet, int[] paraSecondSet) throws Exception {
-		Common.runSteps++;
 		if ((paraFirstSet.length > paraSecondSet.length)
 				|| (paraFirstSet[paraFirstSet.length - 1] > paraSecondSet[paraSecondSet.length - 1])
 				|| paraSecondSet[paraSecondSet.length - 1] > 100) {
@@ -1975,7 +2159,6 @@ public class SimpleTools extends Object {
 		int indexInTheFirstSet = 0;
 		int indexInTheSecondSet = 0;
 		while (indexInTheFirstSet < paraFirstSet.length) {
-			Common.runSteps++;
 			if (paraFirstSet[indexInTheFirstSet] > paraSecondSet[indexInTheSecondSet]) {
 				indexInTheSecondSet++;
 			} else if (paraFirstSet[indexInTheFirstSet] < paraSecondSet[indexInTheSecondSet]) {
@@ -2315,7 +2498,6 @@ public class SimpleTools extends Object {
 		int firstIndex = 0;
 		int secondIndex = 0;
 		while ((firstIndex < paraFirstSet.length) && (secondIndex < paraSecondSet.length)) {
-			Common.runSteps++;
 			if (paraFirstSet[firstIndex] < paraSecondSet[secondIndex]) {
 				firstIndex++;
 			} else if (paraFirstSet[firstIndex] > paraSecondSet[secondIndex]) {
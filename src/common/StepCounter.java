@@ -0,0 +1,82 @@
+package common;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count the number of steps of a run. Each run has its own counter, owned by
+ * the booster and shared by its weighted instances and base classifiers, so
+ * that overlapping runs do not add into or reset each other's counts. The
+ * counter is striped, so that threads training in parallel do not contend on,
+ * or lose, updates. Loops should add their steps once after finishing instead
+ * of once per iteration. Each call, and each update of a local count in a
+ * loop, is guarded by COUNT_STEPS at the call site, so that setting it to false
+ * compiles the counting out.<br>
+ * Project: Java implementation of the AdaBoosting algorithm.<br>
+ * 
+ * @author Fan Min<br>
+ *         www.fansmale.com, github.com/fansmale/MFAdaBoosting.<br>
+ *         Email: minfan@swpu.edu.cn, minfanphd@163.com.<br>
+ *         Date Created: October 17, 2026.<br>
+ *         Last modified: October 17, 2026.
+ * @version 1.0
+ */
+
+public class StepCounter extends Object {
+
+	/**
+	 * Count steps or not. Since it is a constant, javac drops the blocks
+	 * guarded by it when it is false, including the computation of the steps
+	 * to add. Callers should guard their counting with it.
+	 */
+	public static final boolean COUNT_STEPS = true;
+
+	/**
+	 * The number of steps since the last reset.
+	 */
+	private final LongAdder steps = new LongAdder();
+
+	/**
+	 ****************** 
+	 * Add steps.
+	 * 
+	 * @param paraSteps
+	 *            The number of steps to add.
+	 ****************** 
+	 */
+	public void add(long paraSteps) {
+		if (COUNT_STEPS) {
+			steps.add(paraSteps);
+		} // Of if
+	}// Of add
+
+	/**
+	 ****************** 
+	 * Add one step.
+	 ****************** 
+	 */
+	public void increment() {
+		if (COUNT_STEPS) {
+			steps.increment();
+		} // Of if
+	}// Of increment
+
+	/**
+	 ****************** 
+	 * Reset the counter, e.g., before the same booster runs again.
+	 ****************** 
+	 */
+	public void reset() {
+		steps.reset();
+	}// Of reset
+
+	/**
+	 ****************** 
+	 * Getter. The result is exact when no thread is adding steps.
+	 * 
+	 * @return The number of steps since the last reset.
+	 ****************** 
+	 */
+	public long getSteps() {
+		return steps.sum();
+	}// Of getSteps
+}// Of class StepCounter
@@ -154,7 +154,8 @@ public class MabGUI implements ActionListener, ItemListener, TextListener {
 
 		// Step 2. Settings.
 		numBaseClassifiersField = new IntegerField("100");
-		String[] tempClassifierTypes = { "Stump", "Bayes", "Gaussian" };
+		String[] tempClassifierTypes = { "Stump", "Bayes", "Gaussian", "Best stump",
+				"Histogram stump" };
 		baseClassifierTypeComboBox = new JComboBox<String>(tempClassifierTypes);
 		stopAfterConvergeCheckbox = new Checkbox("Stop after converge");
 		stopAfterConvergeCheckbox.addItemListener(this);
@@ -228,7 +229,8 @@ public class MabGUI implements ActionListener, ItemListener, TextListener {
 	 */
 	public void actionPerformed(ActionEvent ae) {
 		Common.startTime = new Date().getTime();
-		Common.runSteps = 0;
+		// Each run has its own counter, shared by the boosters of all repeats.
+		StepCounter tempStepCounter = new StepCounter();
 		messageTextArea.setText("Processing ... Please wait.\r\n");
 
 		// Parameters to be transferred to respective objects.
@@ -255,24 +257,28 @@ public class MabGUI implements ActionListener, ItemListener, TextListener {
 		double tempMaxAccuracy = 0;
 		double tempAccuracySum = 0;
 
+		Booster tempBooster = null;
+		int tempScheme = trainingTestingSchemeComboBox.getSelectedIndex();
 		for (int i = 0; i < tempRepeatTimes; i++) {
-			// Read the data here.
-			Booster tempBooster = null;
-			int tempScheme = trainingTestingSchemeComboBox.getSelectedIndex();
-			switch (tempScheme) {
-			case Booster.SPLIT_IN_TWO:
-				tempBooster = new Booster(tempTrainingFilename, tempTrainingFraction);
-				break;
-			case Booster.USE_TRAINING_SET:
-				tempBooster = new Booster(tempTrainingFilename);
-				break;
-			case Booster.SPECIFY_TESTING_SET:
-				tempBooster = new Booster(tempTrainingFilename, tempTestingFilename);
-				break;
-			default:
-				System.out.println("Unsupported training-testing scheme: " + tempScheme);
-				System.exit(0);
-			}// Of switch
+			// Read the data here. They are read only once unless split randomly,
+			// so that the presorted indices are shared by all repeats.
+			if ((tempBooster == null) || (tempScheme == Booster.SPLIT_IN_TWO)) {
+				switch (tempScheme) {
+				case Booster.SPLIT_IN_TWO:
+					tempBooster = new Booster(tempTrainingFilename, tempTrainingFraction);
+					break;
+				case Booster.USE_TRAINING_SET:
+					tempBooster = new Booster(tempTrainingFilename);
+					break;
+				case Booster.SPECIFY_TESTING_SET:
+					tempBooster = new Booster(tempTrainingFilename, tempTestingFilename);
+					break;
+				default:
+					System.out.println("Unsupported training-testing scheme: " + tempScheme);
+					System.exit(0);
+				}// Of switch
+				tempBooster.setStepCounter(tempStepCounter);
+			} // Of if
 			tempBooster.setNumBaseClassifiers(tempNumBaseClassifiers);
 			tempBooster.setBaseClassifierType(tempBaseClassifierType);
 			tempBooster.setStopAfterConverge(tempStopAfterConverge);
@@ -298,7 +304,7 @@ public class MabGUI implements ActionListener, ItemListener, TextListener {
 		Common.endTime = new Date().getTime();
 		long tempTimeUsed = Common.endTime - Common.startTime;
 		messageTextArea.append("Runtime: " + tempTimeUsed + "\r\n");
-		messageTextArea.append("Run steps: " + Common.runSteps + "\r\n");
+		messageTextArea.append("Run steps: " + tempStepCounter.getSteps() + "\r\n");
 
 		messageTextArea.append("\r\nEnd.");
 	} // Of actionPerformed